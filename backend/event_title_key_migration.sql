@@ -0,0 +1,12 @@
+-- Sort events on a bounded title key instead of the full title
+-- Run once against an existing database after deploying the version that adds events.title_key
+-- (ddl-auto=update creates the column and idx_events_title_key_id, but it never fills in rows or drops indexes)
+
+-- Fill in the key for events saved before the column existed; new and edited events set it themselves
+UPDATE events SET title_key = LEFT(title, 200) WHERE title_key IS NULL;
+
+-- The old index on the full varchar(2000) title can exceed PostgreSQL's btree row size limit
+DROP INDEX IF EXISTS idx_events_title_id;
+
+-- Verify: should return 0
+-- SELECT COUNT(*) FROM events WHERE title_key IS NULL;
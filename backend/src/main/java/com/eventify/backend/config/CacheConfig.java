@@ -0,0 +1,52 @@
+package com.eventify.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process caches for hot public read endpoints.
+ * Each cache has its own Caffeine spec (size/TTL) that can be overridden in application.properties.
+ * Entries are evicted by the admin write paths; hit/miss statistics are published as
+ * "cache.gets" metrics through the actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RECENT_EVENTS = "recentEvents";
+    public static final String EVENTS = "events";
+    public static final String EVENT = "event";
+    public static final String CATEGORIES = "categories";
+    public static final String GLOBAL_SETTINGS = "globalSettings";
+
+    @Value("${cache.recent-events.spec:maximumSize=10,expireAfterWrite=30s}")
+    private String recentEventsSpec;
+
+    @Value("${cache.events.spec:maximumSize=1,expireAfterWrite=5m}")
+    private String eventsSpec;
+
+    @Value("${cache.event.spec:maximumSize=500,expireAfterWrite=5m}")
+    private String eventSpec;
+
+    @Value("${cache.categories.spec:maximumSize=1,expireAfterWrite=10m}")
+    private String categoriesSpec;
+
+    @Value("${cache.global-settings.spec:maximumSize=50,expireAfterWrite=10m}")
+    private String globalSettingsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(RECENT_EVENTS, Caffeine.from(recentEventsSpec).recordStats().build());
+        cacheManager.registerCustomCache(EVENTS, Caffeine.from(eventsSpec).recordStats().build());
+        cacheManager.registerCustomCache(EVENT, Caffeine.from(eventSpec).recordStats().build());
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.from(categoriesSpec).recordStats().build());
+        cacheManager.registerCustomCache(GLOBAL_SETTINGS, Caffeine.from(globalSettingsSpec).recordStats().build());
+        return cacheManager;
+    }
+}
@@ -28,6 +28,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("https://eventify.karansuthar.works"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Total-Count"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -41,7 +42,9 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)).authorizeHttpRequests(auth -> auth
                 // Health check endpoint for Render
-                .requestMatchers("/actuator/health").permitAll()                // Public API endpoints
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/metrics/**", "/actuator/caches/**").authenticated() // Cache hit/miss metrics for admins
+                // Public API endpoints
                 .requestMatchers(HttpMethod.POST, "/api/events/*/feedback").permitAll() // Allow users to submit feedback
                 .requestMatchers(HttpMethod.GET, "/api/events/*/feedback").permitAll() // Allow users to view feedback
                 .requestMatchers(HttpMethod.GET, "/api/events/**").permitAll()
@@ -50,6 +53,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/event-requests").permitAll() // Allow public event requests
                 .requestMatchers(HttpMethod.GET, "/api/global-discount").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/categories").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/media/staged/*").permitAll() // Previews of images still being processed
                 .requestMatchers("/api/auth/login").permitAll()
                 .requestMatchers("/api/auth/validate").permitAll()
                 
@@ -66,6 +70,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/offerings/**").authenticated()
                 .requestMatchers(HttpMethod.DELETE, "/api/offerings/**").authenticated()
                 .requestMatchers("/api/auth/me").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/media/jobs/**").authenticated() // Image job progress
                 .anyRequest().denyAll() // Deny any other requests for security
             )
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
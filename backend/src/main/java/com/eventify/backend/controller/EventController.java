@@ -1,20 +1,44 @@
 package com.eventify.backend.controller;
 
+import com.eventify.backend.config.CacheConfig;
 import com.eventify.backend.entity.*;
+import com.eventify.backend.pojo.CatalogVersion;
+import com.eventify.backend.pojo.CategorySummary;
+import com.eventify.backend.pojo.EventSaveResponse;
+import com.eventify.backend.pojo.EventSnapshot;
+import com.eventify.backend.pojo.ImageUploadResult;
+import com.eventify.backend.pojo.StagedUpload;
 import com.eventify.backend.repository.*;
+import com.eventify.backend.service.CatalogVersionService;
+import com.eventify.backend.service.EventCatalogService;
+import com.eventify.backend.service.EventCatalogSnapshot;
 import com.eventify.backend.service.EventNotificationService;
-import com.eventify.backend.service.SupabaseStorageService;
+import com.eventify.backend.service.MediaJobService;
+import com.eventify.backend.service.PricingService;
+import com.eventify.backend.service.StoredImageService;
+import com.eventify.backend.util.StagedFile;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -35,7 +59,22 @@ public class EventController {
     @Autowired
     private EventNotificationService eventNotificationService;
     @Autowired
-    private SupabaseStorageService supabaseStorageService;
+    private MediaJobService mediaJobService;
+    @Autowired
+    private StoredImageService storedImageService;
+    @Autowired
+    private EventCatalogService eventCatalogService;
+    @Autowired
+    private EventCatalogSnapshot eventCatalogSnapshot;
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+    @Autowired
+    private PricingService pricingService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${events.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
 
     /**
      * Example GET /api/categories response:
@@ -45,8 +84,12 @@ public class EventController {
      * ]
      */
     @GetMapping("/categories")
-    public List<Category> getCategories() {
-        return categoryRepository.findAll();
+    public List<CategorySummary> getCategories(WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.categories();
+        if (version.checkNotModified(webRequest)) {
+            return null;
+        }
+        return categoryRepository.findAllSummaries();
     }
 
     /**
@@ -67,6 +110,7 @@ public class EventController {
      * { "error": "Category already exists" }
      */
     @PostMapping("/categories")
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public ResponseEntity<?> addCategory(@RequestBody Category category) {
         if (category.getName() == null || category.getEmoji() == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Missing name or emoji"));
@@ -102,18 +146,124 @@ public class EventController {
      * ]
      * <p>
      * Each event object now includes a boolean "featured" property indicating if the event is featured.
+     * <p>
+     * With events.snapshot.enabled the body is a pre-rendered snapshot (events in id order), sent gzipped
+     * when Accept-Encoding allows it, with a strong ETag per encoding; a matching If-None-Match gets 304 Not Modified.
      */
     @GetMapping("/events")
-    public List<Event> getAllEvents() {
-        // Fetch events with all relationships in a single query
-        // This assumes you have a method in EventRepository that uses JOIN FETCH
-        List<Event> events = eventRepository.findAllWithImages();
-        for (Event event : events) {
-            if (event.getImages() != null) {
-                event.getImages().sort(Comparator.comparing(img -> img.getOrder() != null ? img.getOrder() : Integer.MAX_VALUE));
+    public ResponseEntity<?> getAllEvents(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        if (!snapshotEnabled) {
+            // Fetch events with all relationships in a single query, served from the events cache
+            // Images arrive ordered by image_order (@OrderBy on Event.images)
+            return ResponseEntity.ok(eventCatalogService.findAll());
+        }
+        // Events embed their category, so the snapshot depends on both tables
+        CatalogVersion version = catalogVersionService.events().and(catalogVersionService.categories());
+        EventCatalogSnapshot.Snapshot snapshot = eventCatalogSnapshot.get(version);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+        if (matchesAny(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    /**
+     * True when If-None-Match lists the ETag (weak comparison, so W/ tags match) or is "*".
+     */
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    /**
+     * True when Accept-Encoding allows gzip: listed (or x-gzip) or covered by "*", with a q value above 0.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim().toLowerCase(Locale.ROOT);
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = q;
+            } else if (name.equals("*")) {
+                any = q;
             }
         }
-        return events;
+        double q = gzip != null ? gzip : any != null ? any : 0;
+        return q > 0;
+    }
+
+    /**
+     * GET /api/events/page
+     * Cursor-paginated variant of GET /api/events, newest events first.
+     * Query params:
+     * - cursor (optional, "nextCursor" from the previous page; omit for the first page)
+     * - size (optional, defaults to events.page.default-size, capped at events.page.max-size)
+     * Example: /api/events/page?cursor=2025-06-01_42&size=20
+     * <p>
+     * Example response:
+     * {
+     * "events": [ { ...same shape as GET /api/events... } ],
+     * "nextCursor": "2025-05-20_37",
+     * "size": 20
+     * }
+     * <p>
+     * "nextCursor" is null on the last page.
+     */
+    @GetMapping("/events/page")
+    public ResponseEntity<?> getEventsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest
+    ) {
+        CatalogVersion version = catalogVersionService.events();
+        if (version.checkNotModified(webRequest)) {
+            return null;
+        }
+        EventCatalogService.EventCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = EventCatalogService.EventCursor.parse(cursor);
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid cursor"));
+            }
+        }
+        EventCatalogService.EventPage page = eventCatalogService.findPage(after, size);
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("events", page.events());
+        resp.put("nextCursor", page.nextCursor() != null ? page.nextCursor().toString() : null);
+        resp.put("size", page.size());
+        return ResponseEntity.ok(resp);
     }
 
     /**
@@ -141,19 +291,13 @@ public class EventController {
      * Each event object now includes a boolean "featured" property indicating if the event is featured.
      */
     @GetMapping("/events/recent")
-    public List<Event> getRecentEvents() {
-        // Use optimized repository method to fetch recent events with images in a single query
-        List<Event> events = eventRepository.findRecentEventsWithImages().stream()
-                .limit(10)
-                .toList();
-
-        // Sort images by order for consistent display
-        for (Event event : events) {
-            if (event.getImages() != null) {
-                event.getImages().sort(Comparator.comparing(img -> img.getOrder() != null ? img.getOrder() : Integer.MAX_VALUE));
-            }
+    public List<Event> getRecentEvents(WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.events();
+        if (version.checkNotModified(webRequest)) {
+            return null;
         }
-        return events;
+        // Top-N query (events.recent.limit) with images batch-loaded, served from a short-lived cache
+        return eventCatalogService.findRecent();
     }
 
     /**
@@ -195,8 +339,14 @@ public class EventController {
      * { "error": "Invalid descriptions JSON" }
      * <p>
      * The response now includes a boolean "featured" property in the event object.
+     * <p>
+     * Images are stored in the background: until then each shows "pending": true and its url serves the file
+     * as uploaded (progress: GET /api/media/jobs?eventId=1). Images that could not be accepted are listed after
+     * the event fields, in request order:
+     * "imageErrors": [ { "index": 2, "fileName": "photo.heic", "error": "..." } ]
      */
     @PostMapping("/events")
+    @CacheEvict(cacheNames = {CacheConfig.RECENT_EVENTS, CacheConfig.EVENTS, CacheConfig.CATEGORIES}, allEntries = true)
     public ResponseEntity<?> addEvent(
             @RequestParam String title,
             @RequestParam String category,
@@ -247,16 +397,15 @@ public class EventController {
         event.setDescriptions(descList);
         event.setLocation(location);
         event.setFeatured(featured);
-        event = eventRepository.save(event);
-
-        // Send notification for new event creation
-        try {
-            eventNotificationService.sendEventCreatedNotification(event.getId(), event.getTitle());
-        } catch (Exception e) {
-            System.err.println("Failed to send event created notification: " + e.getMessage());
-        }
+        Event newEvent = event;
+        // The event and its notification (outbox row) are committed together
+        event = transactionTemplate.execute(status -> {
+            Event saved = eventRepository.save(newEvent);
+            eventNotificationService.sendEventCreatedNotification(EventSnapshot.of(saved));
+            return saved;
+        });
 
-        // 5. Save images to Supabase Storage
+        // 5. Stage images for Supabase Storage
         System.out.println("=== IMAGE UPLOAD DEBUG ===");
         System.out.println("Images parameter: " + (images != null ? images.length : "null"));
         if (images != null) {
@@ -266,51 +415,38 @@ public class EventController {
         }
 
         List<EventImage> imageEntities = new ArrayList<>();
+        List<ImageUploadResult> imageErrors = new ArrayList<>();
+        // Only staged here; compression and upload run in the background (MediaJobWorker)
+        List<StagedUpload> staged = mediaJobService.stageAll(images, imageErrors);
         if (images != null) {
-            String bucket = "images"; // Changed from "event-files" to "images"
-            for (int i = 0; i < images.length; i++) {
-                MultipartFile file = images[i];
-                System.out.println("Processing image " + i + ": " + file.getOriginalFilename() + ", empty: " + file.isEmpty());
-                if (!file.isEmpty()) {
-                    try {
-                        String extension = "";
-                        String originalName = file.getOriginalFilename();
-                        if (originalName != null) {
-                            int dotIdx = originalName.lastIndexOf('.');
-                            if (dotIdx != -1) {
-                                extension = originalName.substring(dotIdx);
-                            }
-                        }
-                        String fileName = UUID.randomUUID() + extension;
-                        String supabasePath = event.getId() + "/" + fileName;
-                        System.out.println("Uploading to Supabase: " + supabasePath);
-                        String supabaseUrl = supabaseStorageService.uploadCompressedImage(file, bucket, supabasePath);
-                        System.out.println("Got URL back: " + supabaseUrl);
-                        EventImage img = new EventImage();
-                        img.setUrl(supabaseUrl);
-                        img.setEvent(event);
-                        img.setOrder(i);
-                        imageEntities.add(img);
-                        System.out.println("✅ Image entity created successfully");
-                    } catch (IOException e) {
-                        System.err.println("❌ Error uploading image: " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
+            for (StagedUpload upload : staged) {
+                EventImage img = new EventImage();
+                img.setUrl(upload.previewUrl());
+                img.setEvent(event);
+                img.setOrder(upload.index());
+                imageEntities.add(img);
             }
             System.out.println("Saving " + imageEntities.size() + " image entities to database");
-            eventImageRepository.saveAll(imageEntities);
-            event.setImages(imageEntities);
+            Event withImages = event;
+            // The pending images and their jobs are committed together
+            event = transactionTemplate.execute(status -> {
+                eventImageRepository.saveAll(imageEntities);
+                for (int i = 0; i < imageEntities.size(); i++) {
+                    mediaJobService.enqueue(imageEntities.get(i), staged.get(i), "images");
+                }
+                withImages.getImages().addAll(imageEntities);
+                // Bump the version so validators taken before the images were attached go stale
+                withImages.setUpdatedAt(Instant.now());
+                return eventRepository.save(withImages);
+            });
         }
         System.out.println("Final event has " + (event.getImages() != null ? event.getImages().size() : 0) + " images");
         System.out.println("=== END IMAGE UPLOAD DEBUG ===");
 
-        // 6. Return event info
-        // Ensure images are sorted by order in the response
-        if (event.getImages() != null) {
-            event.getImages().sort(Comparator.comparing(EventImage::getOrder));
-        }
-        return ResponseEntity.ok(event);
+        eventCatalogSnapshot.refresh(event.getId());
+
+        // 6. Return event info (images were created in upload order) and any images that could not be accepted
+        return ResponseEntity.ok(EventSaveResponse.of(event, imageErrors));
     }
 
     /**
@@ -340,15 +476,14 @@ public class EventController {
      * The response now includes a boolean "featured" property in the event object.
      */
     @GetMapping("/events/{id}")
-    public ResponseEntity<?> getEventById(@PathVariable Long id) {
-        // Use optimized repository method that fetches event with images in a single query
-        return eventRepository.findByIdWithImages(id)
-                .map(event -> {
-                    if (event.getImages() != null) {
-                        event.getImages().sort(Comparator.comparing(img -> img.getOrder() != null ? img.getOrder() : Integer.MAX_VALUE));
-                    }
-                    return ResponseEntity.ok((Object) event);
-                })
+    public ResponseEntity<?> getEventById(@PathVariable Long id, WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.event(id);
+        if (!version.isEmpty() && version.checkNotModified(webRequest)) {
+            return null;
+        }
+        // Fetches the event with images in a single query, served from the per-id event cache
+        return eventCatalogService.findById(id)
+                .map(event -> ResponseEntity.ok((Object) event))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event not found")));
     }
 
@@ -398,8 +533,13 @@ public class EventController {
      * { "error": "Event not found" }
      * <p>
      * The request and response now include a boolean "featured" property in the event object.
+     * New images are stored in the background and reported as for POST /api/events.
      */
     @PutMapping("/events/{id}")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.RECENT_EVENTS, CacheConfig.EVENTS}, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.EVENT, key = "#id")
+    })
     public ResponseEntity<?> updateEvent(
             @PathVariable Long id,
             @RequestParam("eventData") String eventDataJson,
@@ -411,7 +551,6 @@ public class EventController {
             return eventRepository.findById(id)
                     .map(event -> {                        // Check if featured status is changing
                         boolean featuredChanged = event.isFeatured() != updatedEvent.isFeatured();
-                        boolean newFeaturedStatus = updatedEvent.isFeatured();
 
                         // Update all fields
                         event.setTitle(updatedEvent.getTitle());
@@ -428,6 +567,10 @@ public class EventController {
                         List<EventImage> existingImages = event.getImages();
                         List<EventImage> newImageList = updatedEvent.getImages() != null ? updatedEvent.getImages() : new ArrayList<>();
 
+                        // URLs whose storage references are taken with the update / given back once it is saved
+                        List<String> retainedUrls = new ArrayList<>();
+                        List<String> releasedUrls = new ArrayList<>();
+
                         // 1. Remove images not in new list (by id)
                         Iterator<EventImage> it = existingImages.iterator();
                         while (it.hasNext()) {
@@ -435,6 +578,7 @@ public class EventController {
                             boolean stillPresent = newImageList.stream().anyMatch(ni -> ni.getId() != null && ni.getId().equals(img.getId()));
                             if (!stillPresent) {
                                 it.remove(); // triggers orphanRemoval
+                                releasedUrls.add(img.getUrl());
                             }
                         }
 
@@ -446,42 +590,32 @@ public class EventController {
                                 for (EventImage existing : existingImages) {
                                     if (existing.getId() != null && existing.getId().equals(newImg.getId())) {
                                         existing.setOrder(newImg.getOrder() != null ? newImg.getOrder() : i);
-                                        existing.setUrl(newImg.getUrl());
+                                        // A preview URL sent back by the client may be stale: its job owns the url
+                                        if (!Objects.equals(existing.getUrl(), newImg.getUrl()) && !StagedFile.isPreviewUrl(newImg.getUrl())) {
+                                            // Variants belong to the old URL
+                                            existing.setVariantNames(null);
+                                            retainedUrls.add(newImg.getUrl());
+                                            releasedUrls.add(existing.getUrl());
+                                            existing.setUrl(newImg.getUrl());
+                                        }
                                         break;
                                     }
                                 }
                             } // else: skip, new images will be handled below
                         }
 
-                        // 3. Handle new image uploads
-                        if (newImages != null) {
-                            String bucket = "event-files";
-                            int startOrder = existingImages.size();
-                            for (int i = 0; i < newImages.length; i++) {
-                                MultipartFile file = newImages[i];
-                                if (!file.isEmpty()) {
-                                    try {
-                                        String extension = "";
-                                        String originalName = file.getOriginalFilename();
-                                        if (originalName != null) {
-                                            int dotIdx = originalName.lastIndexOf('.');
-                                            if (dotIdx != -1) {
-                                                extension = originalName.substring(dotIdx);
-                                            }
-                                        }
-                                        String fileName = UUID.randomUUID() + extension;
-                                        String supabasePath = event.getId() + "/" + fileName;
-                                        String supabaseUrl = supabaseStorageService.uploadCompressedImage(file, bucket, supabasePath);
-                                        EventImage img = new EventImage();
-                                        img.setUrl(supabaseUrl);
-                                        img.setEvent(event);
-                                        img.setOrder(startOrder + i);
-                                        existingImages.add(img);
-                                    } catch (IOException e) {
-                                        // skip this image
-                                    }
-                                }
-                            }
+                        // 3. Stage new image uploads; they are stored in the background (MediaJobWorker)
+                        List<ImageUploadResult> imageErrors = new ArrayList<>();
+                        List<StagedUpload> staged = mediaJobService.stageAll(newImages, imageErrors);
+                        List<EventImage> pendingImages = new ArrayList<>();
+                        int startOrder = existingImages.size();
+                        for (StagedUpload upload : staged) {
+                            EventImage img = new EventImage();
+                            img.setUrl(upload.previewUrl());
+                            img.setEvent(event);
+                            img.setOrder(startOrder + upload.index());
+                            existingImages.add(img);
+                            pendingImages.add(img);
                         }
 
                         // --- Ensure images are always ordered by their position in the list after update ---
@@ -501,26 +635,29 @@ public class EventController {
                         for (int i = 0; i < existingImages.size(); i++) {
                             existingImages.get(i).setOrder(i);
                         }
-                        eventRepository.save(event);
-
-                        // Send notifications based on what changed
-                        try {
+                        // Image-only changes do not dirty the event row, so bump its version explicitly
+                        event.setUpdatedAt(Instant.now());
+                        // Save the event and queue its notification (outbox row) in one transaction
+                        transactionTemplate.executeWithoutResult(status -> {
+                            retainedUrls.forEach(storedImageService::retain);
+                            // Saved first so the jobs can refer to the new image ids
+                            eventImageRepository.saveAll(pendingImages);
+                            for (int i = 0; i < pendingImages.size(); i++) {
+                                mediaJobService.enqueue(pendingImages.get(i), staged.get(i), "event-files");
+                            }
+                            eventRepository.save(event);
                             if (featuredChanged) {
                                 // Send specific featured/unfeatured notification
-                                eventNotificationService.sendEventFeaturedNotification(event.getId(), event.getTitle(), newFeaturedStatus);
+                                eventNotificationService.sendEventFeaturedNotification(EventSnapshot.of(event));
                             } else {
                                 // Send general update notification
-                                eventNotificationService.sendEventUpdatedNotification(event.getId(), event.getTitle());
+                                eventNotificationService.sendEventUpdatedNotification(EventSnapshot.of(event));
                             }
-                        } catch (Exception e) {
-                            System.err.println("Failed to send event notification: " + e.getMessage());
-                        }
+                        });
+                        eventCatalogSnapshot.refresh(event.getId());
+                        storedImageService.release(releasedUrls);
 
-                        // Ensure images are sorted by order if present
-                        if (event.getImages() != null) {
-                            event.getImages().sort(Comparator.comparing(img -> img.getOrder() != null ? img.getOrder() : Integer.MAX_VALUE));
-                        }
-                        return ResponseEntity.ok((Object) event);
+                        return ResponseEntity.ok((Object) EventSaveResponse.of(event, imageErrors));
                     })
                     .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event not found")));
         } catch (Exception e) {
@@ -549,20 +686,17 @@ public class EventController {
         feedback.setName(name);
         feedback.setText(text);
         feedback.setEvent(eventOpt.get());
-        Feedback saved = feedbackRepository.save(feedback);
-
-        // Send notification for new feedback
-        try {
+        // The feedback and its notification (outbox row) are committed together
+        Feedback saved = transactionTemplate.execute(status -> {
+            Feedback savedFeedback = feedbackRepository.save(feedback);
             Event event = eventOpt.get();
             eventNotificationService.sendEventFeedbackNotification(
-                    event.getId(),
-                    event.getTitle(),
-                    saved.getName(),
-                    saved.getText()
+                    EventSnapshot.of(event),
+                    savedFeedback.getName(),
+                    savedFeedback.getText()
             );
-        } catch (Exception e) {
-            System.err.println("Failed to send event feedback notification: " + e.getMessage());
-        }
+            return savedFeedback;
+        });
 
         // Return feedback without event to avoid recursion
         Map<String, Object> resp = new HashMap<>();
@@ -647,6 +781,10 @@ public class EventController {
      * Deletes an event by its ID (admin only, requires authentication)
      */
     @DeleteMapping("/events/{id}")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.RECENT_EVENTS, CacheConfig.EVENTS}, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.EVENT, key = "#id")
+    })
     public ResponseEntity<?> deleteEvent(@PathVariable Long id) {
         // Check if event exists
         if (!eventRepository.existsById(id)) {
@@ -654,7 +792,10 @@ public class EventController {
         }
 
         // Delete the event (this will also cascade delete related images and feedbacks)
+        List<String> imageUrls = eventImageRepository.findUrlsByEventId(id);
         eventRepository.deleteById(id);
+        eventCatalogSnapshot.remove(id);
+        storedImageService.release(imageUrls);
         return ResponseEntity.ok(Map.of("success", true, "message", "Event deleted successfully"));
     }
 
@@ -663,11 +804,13 @@ public class EventController {
      * Returns the current global discount percentage (as a number, e.g. 10 for 10%)
      */
     @GetMapping("/global-discount")
-    public ResponseEntity<?> getGlobalDiscount() {
+    public ResponseEntity<?> getGlobalDiscount(WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.setting("global_discount");
+        if (version.checkNotModified(webRequest)) {
+            return null;
+        }
         return ResponseEntity.ok(Map.of(
-                "discount", globalSettingRepository.findByKey("global_discount")
-                        .map(gs -> gs.getValue())
-                        .orElse("0")
+                "discount", globalSettingRepository.findValueByKey("global_discount").orElse("0")
         ));
     }
 
@@ -676,71 +819,52 @@ public class EventController {
      * Sets the global discount percentage (expects {"discount": 10})
      */
     @PostMapping("/global-discount")
+    @CacheEvict(cacheNames = CacheConfig.GLOBAL_SETTINGS, key = "'global_discount'")
     public ResponseEntity<?> setGlobalDiscount(@RequestBody Map<String, Object> payload) {
         Object discountObj = payload.get("discount");
         if (discountObj == null) return ResponseEntity.badRequest().body(Map.of("error", "Missing discount"));
         String discountStr = discountObj.toString();
+        BigDecimal discount;
         try {
-            double val = Double.parseDouble(discountStr);
-            if (val < 0 || val > 100)
+            discount = new BigDecimal(discountStr);
+            if (discount.signum() < 0 || discount.compareTo(BigDecimal.valueOf(100)) > 0)
                 return ResponseEntity.badRequest().body(Map.of("error", "Discount must be 0-100"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid discount value"));
         }
-        GlobalSetting setting = globalSettingRepository.findByKey("global_discount").orElse(new GlobalSetting("global_discount", discountStr));
-        setting.setValue(discountStr);
-        globalSettingRepository.save(setting);
+        // Saved together with the new GLOBAL offering prices (which also moves the offerings ETag)
+        pricingService.setGlobalDiscount(discountStr);
         return ResponseEntity.ok(Map.of("discount", discountStr));
     }
 
     /**
      * GET /api/events/sorted
-     * Retrieve all events with robust server-side sorting.
+     * Retrieve events sorted by the database (index-backed ORDER BY).
      * Query params:
      * - sort (field name, e.g. 'title', 'date', 'id', 'category', 'featured')
      * - order ('asc' or 'desc', default 'asc')
-     * Example: /api/events/sorted?sort=date&order=desc
+     * - page (optional, zero-based page number)
+     * - size (optional, page size, capped at events.page.max-size)
+     * Example: /api/events/sorted?sort=date&order=desc&page=0&size=20
+     * <p>
+     * The body is the same list of events as before; the total number of events is returned in
+     * the X-Total-Count header. Without page and size every event is returned.
      */
     @GetMapping("/events/sorted")
-    public List<Event> getAllEventsSorted(
+    public ResponseEntity<List<Event>> getAllEventsSorted(
             @RequestParam(defaultValue = "id") String sort,
-            @RequestParam(defaultValue = "asc") String order
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest
     ) {
-        List<Event> events = eventRepository.findAllWithImages();
-        events.sort((a, b) -> {
-            int cmp = 0;
-            switch (sort) {
-                case "title":
-                    cmp = a.getTitle().compareToIgnoreCase(b.getTitle());
-                    break;
-                case "date":
-                    cmp = a.getDate() != null && b.getDate() != null ?
-                            a.getDate().compareTo(b.getDate()) : 0;
-                    break;
-                case "category":
-                    String aCat = a.getCategory() != null ? a.getCategory().getName() : "";
-                    String bCat = b.getCategory() != null ? b.getCategory().getName() : "";
-                    cmp = aCat.compareToIgnoreCase(bCat);
-                    break;
-                case "featured":
-                    cmp = Boolean.compare(a.isFeatured(), b.isFeatured());
-                    break;
-                case "id":
-                    cmp = Long.compare(a.getId(), b.getId());
-                    break;
-                default:
-                    cmp = 0;
-            }
-            return "desc".equalsIgnoreCase(order) ? -cmp : cmp;
-        });
-
-        // Sort images by order for consistent display
-        for (Event event : events) {
-            if (event.getImages() != null) {
-                event.getImages().sort(Comparator.comparing(img -> img.getOrder() != null ? img.getOrder() : Integer.MAX_VALUE));
-            }
+        CatalogVersion version = catalogVersionService.events();
+        if (version.checkNotModified(webRequest)) {
+            return null;
         }
-
-        return events;
+        Page<Event> events = eventCatalogService.findSorted(sort, order, page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(events.getTotalElements()))
+                .body(events.getContent());
     }
 }
@@ -1,17 +1,29 @@
 package com.eventify.backend.controller;
 
+import com.eventify.backend.config.CacheConfig;
 import com.eventify.backend.entity.EventOffering;
 import com.eventify.backend.entity.Category;
 import com.eventify.backend.repository.EventOfferingRepository;
 import com.eventify.backend.repository.CategoryRepository;
+import com.eventify.backend.pojo.CatalogVersion;
 import com.eventify.backend.pojo.CategoryWithCount;
-import com.eventify.backend.service.SupabaseStorageService;
+import com.eventify.backend.pojo.StagedUpload;
+import com.eventify.backend.service.CatalogVersionService;
+import com.eventify.backend.service.MediaJobService;
+import com.eventify.backend.service.OfferingCatalogIndex;
+import com.eventify.backend.service.PricingService;
+import com.eventify.backend.service.StoredImageService;
+import com.eventify.backend.util.StagedFile;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.util.StringUtils;
 
+import java.time.Instant;
 import java.util.*;
 
 /**
@@ -28,9 +40,28 @@ public class EventOfferingController {
     @Autowired
     private CategoryRepository categoryRepository;
 
-    // Injects the Supabase storage service
+    // Tracks who references stored images
     @Autowired
-    private SupabaseStorageService supabaseStorageService;
+    private StoredImageService storedImageService;
+
+    // Stages uploaded images and queues them for background storage
+    @Autowired
+    private MediaJobService mediaJobService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Versions used for ETag / Last-Modified on the GET endpoints
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    // In-memory catalogue behind the offering list, search and count endpoints
+    @Autowired
+    private OfferingCatalogIndex offeringCatalogIndex;
+
+    // Stores the discounted price customers see
+    @Autowired
+    private PricingService pricingService;
 
     /**
      * POST /api/offerings
@@ -63,6 +94,7 @@ public class EventOfferingController {
      * }
      */
     @PostMapping
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public ResponseEntity<EventOffering> addOffering(@RequestBody Map<String, Object> payload) {
         EventOffering offering = new EventOffering();
         offering.setTitle((String) payload.get("title"));
@@ -103,7 +135,14 @@ public class EventOfferingController {
                 });
                 offering.setMainCategory(mainCat);
             }
-        }        EventOffering saved = eventOfferingRepository.save(offering);
+        }
+        pricingService.apply(offering);
+        // The offering and its reference to a stored image are committed together
+        EventOffering saved = transactionTemplate.execute(status -> {
+            storedImageService.retain(offering.getDecorationImageUrl());
+            return eventOfferingRepository.save(offering);
+        });
+        offeringCatalogIndex.refresh(saved.getId());
         return ResponseEntity.ok(saved);
     }
 
@@ -113,8 +152,12 @@ public class EventOfferingController {
      * Response: List of EventOffering objects.
      */
     @GetMapping
-    public List<EventOffering> getAllOfferings() {
-        return eventOfferingRepository.findAllWithCategories();
+    public List<EventOffering> getAllOfferings(WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.offerings();
+        if (version.checkNotModified(webRequest)) {
+            return null;
+        }
+        return offeringCatalogIndex.current(version).all();
     }
 
     /**
@@ -123,7 +166,11 @@ public class EventOfferingController {
      * Response: EventOffering object if found, 404 otherwise.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<EventOffering> getOfferingById(@PathVariable Long id) {
+    public ResponseEntity<EventOffering> getOfferingById(@PathVariable Long id, WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.offering(id);
+        if (!version.isEmpty() && version.checkNotModified(webRequest)) {
+            return null;
+        }
         return eventOfferingRepository.findByIdWithCategories(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -139,7 +186,10 @@ public class EventOfferingController {
         if (!eventOfferingRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
+        String imageUrl = eventOfferingRepository.findById(id).map(EventOffering::getDecorationImageUrl).orElse(null);
         eventOfferingRepository.deleteById(id);
+        offeringCatalogIndex.remove(id);
+        storedImageService.release(imageUrl);
         return ResponseEntity.ok().build();
     }
 
@@ -155,9 +205,11 @@ public class EventOfferingController {
      *   - decorationImageUrl (optional, used if no image uploaded)
      *   - categories (required, JSON array of {name, emoji})
      *   - mainCategory (required, JSON object {name, emoji})
-     * Response: The created EventOffering object.
+     * Response: The created EventOffering object. An uploaded image is stored in the background; until then
+     * decorationImageUrl serves the file as uploaded (progress: GET /api/media/jobs?offeringId=...).
      */
     @PostMapping(consumes = {"multipart/form-data"})
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public ResponseEntity<EventOffering> addOfferingMultipart(
             @RequestParam String title,
             @RequestParam Double approximatePrice,
@@ -169,13 +221,11 @@ public class EventOfferingController {
             @RequestParam String mainCategory
     ) {
         String imageUrl = decorationImageUrl;
+        StagedUpload staged = null;
         if (image != null && !image.isEmpty()) {
             try {
-                String extension = StringUtils.getFilenameExtension(image.getOriginalFilename());
-                String fileName = UUID.randomUUID().toString() + (extension != null ? "." + extension : "");
-                String bucket = "offerings";
-                String supabasePath = fileName;
-                imageUrl = supabaseStorageService.uploadCompressedImage(image, bucket, supabasePath);
+                staged = mediaJobService.stage(image, 0);
+                imageUrl = staged.previewUrl();
             } catch (Exception e) {
                 return ResponseEntity.badRequest().build();
             }
@@ -230,7 +280,20 @@ public class EventOfferingController {
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
-        EventOffering saved = eventOfferingRepository.save(offering);
+        pricingService.apply(offering);
+        StagedUpload pendingImage = staged;
+        // The offering and its image job (or its reference to a stored image) are committed together
+        EventOffering saved = transactionTemplate.execute(status -> {
+            if (pendingImage == null) {
+                storedImageService.retain(offering.getDecorationImageUrl());
+            }
+            EventOffering created = eventOfferingRepository.save(offering);
+            if (pendingImage != null) {
+                mediaJobService.enqueue(created, pendingImage, "offerings");
+            }
+            return created;
+        });
+        offeringCatalogIndex.refresh(saved.getId());
         return ResponseEntity.ok(saved);
     }
 
@@ -244,9 +307,11 @@ public class EventOfferingController {
      *   - inclusions (optional, semicolon-separated)
      *   - image (optional file)
      *   - decorationImageUrl (optional, used if no image uploaded)
-     * Response: The updated EventOffering object, or 404 if not found.
+     * Response: The updated EventOffering object, or 404 if not found. An uploaded image is stored in the
+     * background, as for POST.
      */
     @PutMapping(value = "/{id}", consumes = {"multipart/form-data"})
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public ResponseEntity<EventOffering> updateOffering(
             @PathVariable Long id,
             @RequestParam String title,
@@ -262,14 +327,19 @@ public class EventOfferingController {
             @RequestParam(required = false) Double specificDiscountedPrice
     ) {
         return eventOfferingRepository.findById(id).map(offering -> {
-            String imageUrl = decorationImageUrl;
+            String previousUrl = offering.getDecorationImageUrl();
+            // A preview URL sent back by the client may be stale: its job owns the url
+            String imageUrl = StagedFile.isPreviewUrl(decorationImageUrl) ? previousUrl : decorationImageUrl;
+            // Keep the variants while the image stays the same
+            String imageVariants = Objects.equals(imageUrl, previousUrl) ? offering.getDecorationImageVariantNames() : null;
+            boolean imageReplaced = !Objects.equals(imageUrl, previousUrl);
+            StagedUpload staged = null;
             if (image != null && !image.isEmpty()) {
                 try {
-                    String extension = StringUtils.getFilenameExtension(image.getOriginalFilename());
-                    String fileName = UUID.randomUUID().toString() + (extension != null ? "." + extension : "");
-                    String bucket = "offerings";
-                    String supabasePath = fileName;
-                    imageUrl = supabaseStorageService.uploadCompressedImage(image, bucket, supabasePath);
+                    staged = mediaJobService.stage(image, 0);
+                    imageUrl = staged.previewUrl();
+                    imageVariants = null;
+                    imageReplaced = true;
                 } catch (Exception e) {
                     return ResponseEntity.badRequest().body((EventOffering) null);
                 }
@@ -278,6 +348,7 @@ public class EventOfferingController {
             offering.setApproximatePrice(approximatePrice);
             offering.setDescription(description);
             offering.setDecorationImageUrl(imageUrl);
+            offering.setDecorationImageVariantNames(imageVariants);
             offering.setInclusions(inclusions);
             // --- Handle categories update ---
             if (categories != null) {
@@ -340,7 +411,26 @@ public class EventOfferingController {
                     offering.setSpecificDiscountedPrice(specificDiscountedPrice);
                 }
             }
-            EventOffering saved = eventOfferingRepository.save(offering);
+            // Category list changes do not dirty the offering row, so bump its version explicitly
+            offering.setUpdatedAt(Instant.now());
+            pricingService.apply(offering);
+            StagedUpload pendingImage = staged;
+            boolean retainImage = imageReplaced && staged == null;
+            // The offering and its image job (or its reference to a stored image) are committed together
+            EventOffering saved = transactionTemplate.execute(status -> {
+                if (retainImage) {
+                    storedImageService.retain(offering.getDecorationImageUrl());
+                }
+                EventOffering updated = eventOfferingRepository.save(offering);
+                if (pendingImage != null) {
+                    mediaJobService.enqueue(updated, pendingImage, "offerings");
+                }
+                return updated;
+            });
+            offeringCatalogIndex.refresh(saved.getId());
+            if (imageReplaced) {
+                storedImageService.release(previousUrl);
+            }
             return ResponseEntity.ok(saved);
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -355,17 +445,12 @@ public class EventOfferingController {
      * ]
      */
     @GetMapping("/categories-with-count")
-    public List<CategoryWithCount> getCategoriesWithOfferingCount() {
-        List<Object[]> rows = categoryRepository.findCategoriesWithOfferingCount();
-        List<CategoryWithCount> result = new ArrayList<>();
-        for (Object[] row : rows) {
-            Long id = ((Number) row[0]).longValue();
-            String name = (String) row[1];
-            String emoji = (String) row[2];
-            Long count = ((Number) row[3]).longValue();
-            result.add(new CategoryWithCount(id, name, emoji, count));
+    public List<CategoryWithCount> getCategoriesWithOfferingCount(WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.offerings();
+        if (version.checkNotModified(webRequest)) {
+            return null;
         }
-        return result;
+        return offeringCatalogIndex.current(version).categoryCounts();
     }
 
     /**
@@ -375,79 +460,64 @@ public class EventOfferingController {
      * Response: List of EventOffering objects.
      */
     @GetMapping("/by-main-category")
-    public ResponseEntity<List<EventOffering>> getOfferingsByMainCategory(@RequestParam String name) {
-        Category mainCategory = categoryRepository.findByName(name).orElse(null);
-        if (mainCategory == null) {
-            return ResponseEntity.ok(new ArrayList<>());
+    public ResponseEntity<List<EventOffering>> getOfferingsByMainCategory(@RequestParam String name, WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.offerings();
+        if (version.checkNotModified(webRequest)) {
+            return null;
         }
-        List<EventOffering> offerings = eventOfferingRepository.findByMainCategory(mainCategory);
-        return ResponseEntity.ok(offerings);
+        return ResponseEntity.ok(offeringCatalogIndex.current(version).byMainCategory(name));
     }
 
     /**
      * GET /api/offerings/sorted
      * Retrieve all offerings with robust server-side sorting.
      * Query params:
-     *   - sort (field name, e.g. 'title', 'approximatePrice', 'id', 'mainCategory', 'category', 'created', 'updated')
+     *   - sort (field name, e.g. 'title', 'approximatePrice', 'effectivePrice', 'id', 'mainCategory', 'category', 'created', 'updated')
      *   - order ('asc' or 'desc', default 'asc')
      * Example: /api/offerings/sorted?sort=approximatePrice&order=desc
      */
     @GetMapping("/sorted")
     public List<EventOffering> getAllOfferingsSorted(
             @RequestParam(defaultValue = "id") String sort,
-            @RequestParam(defaultValue = "asc") String order
+            @RequestParam(defaultValue = "asc") String order,
+            WebRequest webRequest
     ) {
-        // Use findAllWithCategories() to fetch all offerings and their categories in a single query
-        List<EventOffering> offerings = eventOfferingRepository.findAllWithCategories();
-        offerings.sort((a, b) -> {
-            int cmp = 0;
-            switch (sort) {
-                case "title":
-                    cmp = a.getTitle().compareToIgnoreCase(b.getTitle());
-                    break;
-                case "approximatePrice":
-                    cmp = Double.compare(
-                        a.getApproximatePrice() != null ? a.getApproximatePrice() : 0.0,
-                        b.getApproximatePrice() != null ? b.getApproximatePrice() : 0.0
-                    );
-                    break;
-                case "mainCategory":
-                    cmp = a.getMainCategory() != null && b.getMainCategory() != null ?
-                        a.getMainCategory().getName().compareToIgnoreCase(b.getMainCategory().getName()) : 0;
-                    break;
-                case "category":
-                    String aCat = a.getCategories() != null && !a.getCategories().isEmpty() ? a.getCategories().get(0).getName() : "";
-                    String bCat = b.getCategories() != null && !b.getCategories().isEmpty() ? b.getCategories().get(0).getName() : "";
-                    cmp = aCat.compareToIgnoreCase(bCat);
-                    break;
-                case "id":
-                    cmp = Long.compare(a.getId(), b.getId());
-                    break;
-                default:
-                    cmp = 0;
-            }
-            return "desc".equalsIgnoreCase(order) ? -cmp : cmp;
-        });
-        return offerings;
+        CatalogVersion version = catalogVersionService.offerings();
+        if (version.checkNotModified(webRequest)) {
+            return null;
+        }
+        return offeringCatalogIndex.current(version).sorted(sort, "desc".equalsIgnoreCase(order));
     }
 
     /**
      * GET /api/offerings/search
      * Search, filter, and sort offerings for the frontend UI.
      * Query params:
-     *   - search (string, optional)
-     *   - priceRange (e.g. "10000-19999", optional)
-     *   - sort ("low" or "high", optional)
+     *   - search (string, optional): words matched against title, description and inclusions; each word may be
+     *     the start of a word ("ball" finds "balloons"), all words must match
+     *   - priceRange (e.g. "10000-19999", optional), matched against the discounted (effective) price
+     *   - sort ("low" or "high", optional), by effective price
      *   - category (category name, optional)
-     * Returns: List<EventOffering> matching filters
+     *   - page (optional, zero-based page number)
+     *   - size (optional, page size, defaults to offerings.page.default-size, capped at offerings.page.max-size)
+     * Returns: List<EventOffering> matching filters, most relevant first unless sorted by price.
+     * The total number of matches is returned in the X-Total-Count header. Without page and size every match
+     * is returned.
      */
     @GetMapping("/search")
-    public List<EventOffering> searchOfferings(
+    public ResponseEntity<List<EventOffering>> searchOfferings(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String priceRange,
             @RequestParam(required = false) String sort,
-            @RequestParam(required = false) String category
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest
     ) {
+        CatalogVersion version = catalogVersionService.offerings();
+        if (version.checkNotModified(webRequest)) {
+            return null;
+        }
         // Parse price range if provided
         Double minPrice = null;
         Double maxPrice = null;
@@ -457,22 +527,11 @@ public class EventOfferingController {
             maxPrice = Double.parseDouble(parts[1]);
         }
 
-        // Make a single database request with filters applied
-        List<EventOffering> results = eventOfferingRepository.searchOfferings(search, category, minPrice, maxPrice, sort);
-
-        // Apply sorting in memory since we can't use ORDER BY with DISTINCT in PostgreSQL for non-selected fields
-        if (sort != null) {
-            if (sort.equals("low")) {
-                results.sort(Comparator.comparingDouble(a -> a.getApproximatePrice() != null ? a.getApproximatePrice() : 0.0));
-            } else if (sort.equals("high")) {
-                results.sort((a, b) -> Double.compare(
-                    b.getApproximatePrice() != null ? b.getApproximatePrice() : 0.0,
-                    a.getApproximatePrice() != null ? a.getApproximatePrice() : 0.0
-                ));
-            }
-        }
-
-        return results;
+        Page<EventOffering> results = offeringCatalogIndex.current(version)
+                .search(search, category, minPrice, maxPrice, sort, offeringCatalogIndex.pageable(page, size));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(results.getTotalElements()))
+                .body(results.getContent());
     }
 
     /**
@@ -495,27 +554,21 @@ public class EventOfferingController {
      * ]
      */
     @GetMapping("/grouped-by-main-category")
-    public List<Map<String, Object>> getOfferingsGroupedByMainCategory() {
-        // Use findAllWithCategories to fetch all offerings and their related data in a single query
-        List<EventOffering> offerings = eventOfferingRepository.findAllWithCategories();
-        Map<Long, Map<String, Object>> grouped = new java.util.HashMap<>();
-        for (EventOffering offering : offerings) {
-            Category mainCat = offering.getMainCategory();
-            if (mainCat == null) continue;
-            Long catId = mainCat.getId();
-            if (!grouped.containsKey(catId)) {
-                Map<String, Object> group = new java.util.HashMap<>();
-                group.put("id", mainCat.getId());
-                group.put("name", mainCat.getName());
-                group.put("emoji", mainCat.getEmoji());
-                group.put("offerings", new java.util.ArrayList<EventOffering>());
-                grouped.put(catId, group);
-            }
-            ((List<EventOffering>) grouped.get(catId).get("offerings")).add(offering);
+    public List<Map<String, Object>> getOfferingsGroupedByMainCategory(WebRequest webRequest) {
+        CatalogVersion version = catalogVersionService.offerings();
+        if (version.checkNotModified(webRequest)) {
+            return null;
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (OfferingCatalogIndex.CategoryGroup group : offeringCatalogIndex.current(version).mainCategoryGroups()) {
+            Category mainCat = group.category();
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("id", mainCat.getId());
+            entry.put("name", mainCat.getName());
+            entry.put("emoji", mainCat.getEmoji());
+            entry.put("offerings", group.offerings());
+            result.add(entry);
         }
-        // Sort groups by number of offerings descending
-        List<Map<String, Object>> result = new java.util.ArrayList<>(grouped.values());
-        result.sort((a, b) -> ((List<?>)b.get("offerings")).size() - ((List<?>)a.get("offerings")).size());
         return result;
     }
 }
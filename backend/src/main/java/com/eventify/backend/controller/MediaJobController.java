@@ -0,0 +1,86 @@
+package com.eventify.backend.controller;
+
+import com.eventify.backend.entity.MediaJob;
+import com.eventify.backend.service.MediaJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Progress of the background image jobs, and the previews shown while they run.
+ */
+@RestController
+@RequestMapping("/api/media")
+public class MediaJobController {
+
+    @Autowired
+    private MediaJobService mediaJobService;
+
+    /**
+     * GET /api/media/jobs?eventId=1 or GET /api/media/jobs?offeringId=3 (admin only)
+     * Lists the image jobs of an event or offering, oldest first.
+     * Example response:
+     * [
+     *   { "id": 7, "target": "EVENT_IMAGE", "ownerId": 1, "imageId": 12, "fileName": "stage.jpg", "status": "DONE",
+     *     "attempts": 1, "url": "https://.../images/1/abc.jpg", "createdAt": "...", "finishedAt": "..." },
+     *   { "id": 8, "target": "EVENT_IMAGE", "ownerId": 1, "imageId": 13, "fileName": "hall.png", "status": "PENDING",
+     *     "attempts": 1, "error": "Failed to upload image to Supabase: 503 - ...", "createdAt": "..." }
+     * ]
+     * status is PENDING (queued, running or waiting to retry), DONE or FAILED.
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<?> getJobs(
+            @RequestParam(required = false) Long eventId,
+            @RequestParam(required = false) Long offeringId
+    ) {
+        if (eventId != null) {
+            return ResponseEntity.ok(mediaJobService.statusFor(MediaJob.EVENT_IMAGE, eventId));
+        }
+        if (offeringId != null) {
+            return ResponseEntity.ok(mediaJobService.statusFor(MediaJob.OFFERING_IMAGE, offeringId));
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", "eventId or offeringId is required"));
+    }
+
+    /**
+     * GET /api/media/jobs/{id} (admin only)
+     * One image job, in the format of GET /api/media/jobs.
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        return mediaJobService.status(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not found")));
+    }
+
+    /**
+     * GET /api/media/staged/{token}
+     * Serves an uploaded image as-is while its job is still running; this is the url of pending images.
+     * 404 once the image has been stored (the event / offering then has its final URL).
+     */
+    @GetMapping("/staged/{token}")
+    public ResponseEntity<?> getStaged(@PathVariable String token) throws IOException {
+        var staged = mediaJobService.staged(token).orElse(null);
+        if (staged == null) {
+            return ResponseEntity.notFound().build();
+        }
+        MediaType contentType;
+        try {
+            contentType = MediaType.parseMediaType(staged.getContentType());
+        } catch (Exception e) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM;
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .contentLength(staged.getSize())
+                .cacheControl(CacheControl.noCache())
+                .body(new InputStreamResource(staged.getInputStream()));
+    }
+}
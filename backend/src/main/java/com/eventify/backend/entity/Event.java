@@ -1,20 +1,38 @@
 package com.eventify.backend.entity;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.BatchSize;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
-public class Event {    @Id
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_date_id", columnList = "date, id"),
+        @Index(name = "idx_events_title_key_id", columnList = "title_key, id"),
+        @Index(name = "idx_events_featured_id", columnList = "featured, id"),
+        @Index(name = "idx_events_category_id", columnList = "category_id"),
+        @Index(name = "idx_events_updated_at", columnList = "updated_at")
+})
+public class Event {
+
+    public static final int TITLE_KEY_LENGTH = 200;
+
+    @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(nullable = false, length = 2000)
     private String title;
 
+    // Start of the title, for sorting: an index on the full title can exceed PostgreSQL's btree row size limit
+    @JsonIgnore
+    @Column(name = "title_key", length = TITLE_KEY_LENGTH)
+    private String titleKey;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -36,20 +54,35 @@ public class Event {    @Id
     private String location;
 
     @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @CollectionTable(name = "event_descriptions", joinColumns = @JoinColumn(name = "event_id"))
     private List<DescriptionSection> descriptions = new ArrayList<>();
 
+    // Images always load ordered by image_order (backed by idx_event_images_event_order)
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("order ASC")
     private List<EventImage> images = new ArrayList<>();
 
     @Column(nullable = false)
     private boolean featured = false;
 
+    @JsonIgnore
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = Instant.now();
+        titleKey = title != null && title.length() > TITLE_KEY_LENGTH ? title.substring(0, TITLE_KEY_LENGTH) : title;
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
+    public String getTitleKey() { return titleKey; }
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
     public LocalDate getDate() { return date; }
@@ -68,4 +101,6 @@ public class Event {    @Id
     public void setImages(List<EventImage> images) { this.images = images; }
     public boolean isFeatured() { return featured; }
     public void setFeatured(boolean featured) { this.featured = featured; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
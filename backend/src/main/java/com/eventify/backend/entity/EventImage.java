@@ -1,10 +1,17 @@
 package com.eventify.backend.entity;
 
 import jakarta.persistence.*;
+import com.eventify.backend.pojo.ImageVariant;
+import com.eventify.backend.util.ImageVariants;
+import com.eventify.backend.util.StagedFile;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
 
 @Entity
-@Table(name = "event_images")
+@Table(name = "event_images", indexes = {
+        @Index(name = "idx_event_images_event_order", columnList = "event_id, image_order")
+})
 public class EventImage {    @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -15,6 +22,11 @@ public class EventImage {    @Id
     @Column(name = "image_order")
     private Integer order;
 
+    // Names of the resized variants stored next to url, e.g. "thumb.jpg,thumb.webp" (see ImageVariants)
+    @JsonIgnore
+    @Column(name = "variants", length = 200)
+    private String variantNames;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     @JsonIgnore
@@ -30,6 +42,18 @@ public class EventImage {    @Id
     public void setOrder(Integer order) {
         this.order = order;
     }
+    public String getVariantNames() { return variantNames; }
+    public void setVariantNames(String variantNames) { this.variantNames = variantNames; }
+    /**
+     * Smaller copies of the image, smallest first, so clients can pick the one that fits. Empty for older images.
+     */
+    @JsonProperty(value = "variants", access = JsonProperty.Access.READ_ONLY)
+    public List<ImageVariant> getVariants() { return ImageVariants.resolve(url, variantNames); }
+    /**
+     * True while the image is still being processed; url then serves the uploaded file as-is.
+     */
+    @JsonProperty(value = "pending", access = JsonProperty.Access.READ_ONLY)
+    public boolean isPending() { return StagedFile.isPreviewUrl(url); }
     public Event getEvent() { return event; }
     public void setEvent(Event event) { this.event = event; }
 }
@@ -1,11 +1,19 @@
 package com.eventify.backend.entity;
 
+import com.eventify.backend.pojo.ImageVariant;
+import com.eventify.backend.util.ImageVariants;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.util.List;
 
 @Entity
-@Table(name = "event_offerings")
+@Table(name = "event_offerings", indexes = {
+        @Index(name = "idx_event_offerings_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_event_offerings_effective_price", columnList = "effective_price")
+})
 public class EventOffering {    @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;    @Column(nullable = false, length = 1000)
@@ -14,6 +22,11 @@ public class EventOffering {    @Id
     @Column(nullable = false, length = 2000)
     private String decorationImageUrl;
 
+    // Names of the resized variants stored next to decorationImageUrl (see ImageVariants)
+    @JsonIgnore
+    @Column(name = "decoration_image_variants", length = 200)
+    private String decorationImageVariantNames;
+
     @Column(nullable = false)
     private Double approximatePrice;
 
@@ -43,6 +56,19 @@ public class EventOffering {    @Id
     @Column(name = "specific_discounted_price")
     private Double specificDiscountedPrice;
 
+    // Price after discounts, as customers see it; maintained by PricingService
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "effective_price")
+    private Double effectivePrice;
+
+    @JsonIgnore
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() { updatedAt = Instant.now(); }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -50,6 +76,13 @@ public class EventOffering {    @Id
     public void setTitle(String title) { this.title = title; }
     public String getDecorationImageUrl() { return decorationImageUrl; }
     public void setDecorationImageUrl(String decorationImageUrl) { this.decorationImageUrl = decorationImageUrl; }
+    public String getDecorationImageVariantNames() { return decorationImageVariantNames; }
+    public void setDecorationImageVariantNames(String decorationImageVariantNames) { this.decorationImageVariantNames = decorationImageVariantNames; }
+    /**
+     * Smaller copies of the decoration image, smallest first. Empty for linked or older images.
+     */
+    @JsonProperty(value = "decorationImageVariants", access = JsonProperty.Access.READ_ONLY)
+    public List<ImageVariant> getDecorationImageVariants() { return ImageVariants.resolve(decorationImageUrl, decorationImageVariantNames); }
     public Double getApproximatePrice() { return approximatePrice; }
     public void setApproximatePrice(Double approximatePrice) { this.approximatePrice = approximatePrice; }
     public String getDescription() { return description; }
@@ -64,4 +97,8 @@ public class EventOffering {    @Id
     public void setDiscountType(String discountType) { this.discountType = discountType; }
     public Double getSpecificDiscountedPrice() { return specificDiscountedPrice; }
     public void setSpecificDiscountedPrice(Double specificDiscountedPrice) { this.specificDiscountedPrice = specificDiscountedPrice; }
+    public Double getEffectivePrice() { return effectivePrice; }
+    public void setEffectivePrice(Double effectivePrice) { this.effectivePrice = effectivePrice; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
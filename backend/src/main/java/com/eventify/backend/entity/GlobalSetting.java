@@ -1,7 +1,10 @@
 package com.eventify.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Entity
 public class GlobalSetting {    @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -13,6 +16,14 @@ public class GlobalSetting {    @Id
     @Column(nullable = false, length = 2000)
     private String value;
 
+    @JsonIgnore
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() { updatedAt = Instant.now(); }
+
     public GlobalSetting() {}
     public GlobalSetting(String key, String value) {
         this.key = key;
@@ -23,4 +34,6 @@ public class GlobalSetting {    @Id
     public void setKey(String key) { this.key = key; }
     public String getValue() { return value; }
     public void setValue(String value) { this.value = value; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
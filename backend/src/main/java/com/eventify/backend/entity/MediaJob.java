@@ -0,0 +1,131 @@
+package com.eventify.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * An uploaded image waiting to be compressed and stored. The request that received the file only stages it
+ * (see MediaJobService) and points the event image or offering at a preview of the staged file;
+ * MediaJobWorker then stores it and swaps in the final URL.
+ */
+@Entity
+@Table(name = "media_jobs", indexes = {
+        @Index(name = "idx_media_jobs_status_next", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_media_jobs_owner", columnList = "target, owner_id"),
+        @Index(name = "idx_media_jobs_staged_token", columnList = "staged_token")
+})
+public class MediaJob {
+
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    public static final String EVENT_IMAGE = "EVENT_IMAGE";
+    public static final String OFFERING_IMAGE = "OFFERING_IMAGE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String target; // EVENT_IMAGE, OFFERING_IMAGE
+
+    // Event id for event images, offering id for offering images
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    // EventImage id; null for offering images
+    @Column(name = "image_id")
+    private Long imageId;
+
+    @Column(nullable = false, length = 100)
+    private String bucket;
+
+    @Column(nullable = false, length = 500)
+    private String path;
+
+    @Column(name = "staged_token", nullable = false, length = 36)
+    private String stagedToken;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false, length = 20)
+    private String status = PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "result_url", length = 1000)
+    private String resultUrl;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public MediaJob() {}
+
+    public MediaJob(String target, Long ownerId, Long imageId, String bucket, String path, String stagedToken,
+                    String fileName, String contentType, long size) {
+        this.target = target;
+        this.ownerId = ownerId;
+        this.imageId = imageId;
+        this.bucket = bucket;
+        this.path = path;
+        this.stagedToken = stagedToken;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTarget() { return target; }
+    public void setTarget(String target) { this.target = target; }
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+    public Long getImageId() { return imageId; }
+    public void setImageId(Long imageId) { this.imageId = imageId; }
+    public String getBucket() { return bucket; }
+    public void setBucket(String bucket) { this.bucket = bucket; }
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+    public String getStagedToken() { return stagedToken; }
+    public void setStagedToken(String stagedToken) { this.stagedToken = stagedToken; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public String getResultUrl() { return resultUrl; }
+    public void setResultUrl(String resultUrl) { this.resultUrl = resultUrl; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,111 @@
+package com.eventify.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A rendered notification waiting to be delivered. Rows are written in the same transaction as the change
+ * that triggered them and drained by NotificationRelay.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_next", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_notification_outbox_dedup_key", columnList = "dedup_key"),
+        @Index(name = "idx_notification_outbox_recipient", columnList = "channel, recipient, status")
+})
+public class NotificationOutbox {
+
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String DEAD = "DEAD";
+
+    public static final int SUBJECT_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String channel; // email, whatsapp
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 40)
+    private NotificationType type;
+
+    // Pending notifications with the same key are merged: the latest content replaces the queued one
+    @Column(name = "dedup_key", length = 200)
+    private String dedupKey;
+
+    // Urgent notifications are sent right away instead of waiting for the digest window
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean urgent = false;
+
+    @Column(nullable = false, length = 500)
+    private String recipient;
+
+    @Column(length = SUBJECT_LENGTH)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false, length = 20)
+    private String status = PENDING; // PENDING, SENT, DEAD
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    public NotificationOutbox() {}
+
+    public NotificationOutbox(String channel, NotificationType type, String dedupKey, String recipient, String subject, String body) {
+        this.channel = channel;
+        this.type = type;
+        this.dedupKey = dedupKey;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getChannel() { return channel; }
+    public void setChannel(String channel) { this.channel = channel; }
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+    public String getDedupKey() { return dedupKey; }
+    public void setDedupKey(String dedupKey) { this.dedupKey = dedupKey; }
+    public boolean isUrgent() { return urgent; }
+    public void setUrgent(boolean urgent) { this.urgent = urgent; }
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getSentAt() { return sentAt; }
+    public void setSentAt(Instant sentAt) { this.sentAt = sentAt; }
+}
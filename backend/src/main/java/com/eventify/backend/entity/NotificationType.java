@@ -0,0 +1,14 @@
+package com.eventify.backend.entity;
+
+/**
+ * What triggered a notification. Types listed in notifications.digest.urgent-types skip the digest window.
+ */
+public enum NotificationType {
+    EVENT_CREATED,
+    EVENT_UPDATED,
+    EVENT_FEATURED,
+    EVENT_FEEDBACK,
+    EVENT_CUSTOM,
+    EVENT_REQUEST,
+    OFFERING_REQUEST
+}
@@ -0,0 +1,72 @@
+package com.eventify.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * An image in storage, indexed by the SHA-256 of the bytes that were uploaded, so the same file uploaded again
+ * reuses this object instead of being compressed and sent a second time.
+ * refCount is the number of event images and offerings pointing at url; the object is deleted when it drops to 0.
+ */
+@Entity
+@Table(name = "stored_images", indexes = {
+        @Index(name = "idx_stored_images_url", columnList = "url")
+})
+public class StoredImage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Hex SHA-256 of the original upload, before compression
+    @Column(name = "content_hash", nullable = false, unique = true, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 100)
+    private String bucket;
+
+    @Column(nullable = false, length = 500)
+    private String path;
+
+    @Column(nullable = false, length = 1000)
+    private String url;
+
+    // Comma-separated ImageVariants file names stored next to path
+    @Column(name = "variants", length = 200)
+    private String variantNames;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public StoredImage() {}
+
+    public StoredImage(String contentHash, String bucket, String path, String url, String variantNames) {
+        this.contentHash = contentHash;
+        this.bucket = bucket;
+        this.path = path;
+        this.url = url;
+        this.variantNames = variantNames;
+        this.refCount = 1;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    public String getBucket() { return bucket; }
+    public void setBucket(String bucket) { this.bucket = bucket; }
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+    public String getVariantNames() { return variantNames; }
+    public void setVariantNames(String variantNames) { this.variantNames = variantNames; }
+    public int getRefCount() { return refCount; }
+    public void setRefCount(int refCount) { this.refCount = refCount; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,59 @@
+package com.eventify.backend.pojo;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+
+/**
+ * Cheap version stamp for a collection (row count + latest updated_at), used as an HTTP validator.
+ * Built straight from an aggregate query so the entities themselves never have to be loaded.
+ */
+public class CatalogVersion {
+    private final String tag;
+    private final long count;
+    private final Instant lastModified;
+
+    public CatalogVersion(Long count, Instant lastModified) {
+        this(count + "-" + (lastModified != null ? lastModified.toEpochMilli() : 0), count != null ? count : 0, lastModified);
+    }
+
+    private CatalogVersion(String tag, long count, Instant lastModified) {
+        this.tag = tag;
+        this.count = count;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Version of a response that depends on both collections
+     */
+    public CatalogVersion and(CatalogVersion other) {
+        Instant latest = lastModified;
+        if (latest == null || (other.lastModified != null && other.lastModified.isAfter(latest))) {
+            latest = other.lastModified;
+        }
+        return new CatalogVersion(tag + "." + other.tag, count + other.count, latest);
+    }
+
+    /**
+     * Marks the response "Cache-Control: no-cache" so browsers keep it and revalidate with these validators
+     * (Spring Security only adds its no-store headers when the response has no Cache-Control yet), then checks
+     * the request's If-None-Match/If-Modified-Since. True means a 304 has been prepared and no body is needed.
+     */
+    public boolean checkNotModified(WebRequest request) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request.checkNotModified(getEtag(), getLastModifiedMillis());
+    }
+
+    /**
+     * True when no rows matched, e.g. a single-row version for an id that does not exist
+     */
+    public boolean isEmpty() { return count == 0; }
+    public String getEtag() { return "\"" + tag + "\""; }
+    public long getLastModifiedMillis() { return lastModified != null ? lastModified.toEpochMilli() : -1; }
+    public Instant getLastModified() { return lastModified; }
+}
@@ -0,0 +1,7 @@
+package com.eventify.backend.pojo;
+
+/**
+ * Immutable copy of a category as GET /api/categories returns it, safe to keep in the categories cache.
+ */
+public record CategorySummary(Long id, String name, String emoji) {
+}
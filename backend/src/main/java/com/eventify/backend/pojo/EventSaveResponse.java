@@ -0,0 +1,22 @@
+package com.eventify.backend.pojo;
+
+import com.eventify.backend.entity.Event;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/**
+ * Response of the event create/update endpoints: the event's own JSON, plus an "imageErrors" array
+ * listing the uploaded files that could not be accepted (omitted when every image made it).
+ * Accepted images are stored in the background; until then they show as "pending" images.
+ */
+public record EventSaveResponse(
+        @JsonUnwrapped Event event,
+        @JsonInclude(JsonInclude.Include.NON_EMPTY) List<ImageUploadResult> imageErrors
+) {
+
+    public static EventSaveResponse of(Event event, List<ImageUploadResult> imageErrors) {
+        return new EventSaveResponse(event, imageErrors);
+    }
+}
@@ -0,0 +1,17 @@
+package com.eventify.backend.pojo;
+
+import com.eventify.backend.entity.Event;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of the event fields that notifications show, taken where the event is already loaded
+ * so rendering a notification never has to query the event again.
+ */
+public record EventSnapshot(Long id, String title, LocalDate date, String location, String description, boolean featured) {
+
+    public static EventSnapshot of(Event event) {
+        return new EventSnapshot(event.getId(), event.getTitle(), event.getDate(), event.getLocation(),
+                event.getDescription(), event.isFeatured());
+    }
+}
@@ -0,0 +1,11 @@
+package com.eventify.backend.pojo;
+
+/**
+ * A file of a multi-image request that could not be accepted. index is the file's position in the request.
+ */
+public record ImageUploadResult(int index, String fileName, String error) {
+
+    public static ImageUploadResult failed(int index, String fileName, String error) {
+        return new ImageUploadResult(index, fileName, error);
+    }
+}
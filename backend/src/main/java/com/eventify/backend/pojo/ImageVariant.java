@@ -0,0 +1,10 @@
+package com.eventify.backend.pojo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One size of an uploaded image, at most width pixels wide and high, as JPEG and (when available) WebP.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImageVariant(String name, int width, String jpeg, String webp) {
+}
@@ -0,0 +1,21 @@
+package com.eventify.backend.pojo;
+
+import com.eventify.backend.entity.MediaJob;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Progress of one image job as reported by GET /api/media/jobs. url is set once the job is DONE,
+ * error holds the last failure (kept while a retry is pending).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MediaJobStatus(Long id, String target, Long ownerId, Long imageId, String fileName, String status,
+                             int attempts, String url, String error, Instant createdAt, Instant finishedAt) {
+
+    public static MediaJobStatus of(MediaJob job) {
+        return new MediaJobStatus(job.getId(), job.getTarget(), job.getOwnerId(), job.getImageId(), job.getFileName(),
+                job.getStatus(), job.getAttempts(), job.getResultUrl(), job.getLastError(), job.getCreatedAt(),
+                job.getFinishedAt());
+    }
+}
@@ -0,0 +1,31 @@
+package com.eventify.backend.pojo;
+
+import com.eventify.backend.entity.EventOffering;
+
+/**
+ * Immutable copy of the offering fields that offering request notifications show.
+ * Loaded once per request and shared by the email and WhatsApp messages.
+ * effectivePrice is the discounted price customers see (see PricingService).
+ * When the offering could not be loaded, unavailableReason says why and the other fields are null.
+ */
+public record OfferingSnapshot(Long id, String title, Double approximatePrice, String discountType,
+                               Double effectivePrice, String unavailableReason) {
+
+    public static OfferingSnapshot of(EventOffering offering) {
+        Double effectivePrice = offering.getEffectivePrice() != null ? offering.getEffectivePrice() : offering.getApproximatePrice();
+        return new OfferingSnapshot(offering.getId(), offering.getTitle(), offering.getApproximatePrice(),
+                offering.getDiscountType(), effectivePrice, null);
+    }
+
+    public static OfferingSnapshot unavailable(Long id, String reason) {
+        return new OfferingSnapshot(id, null, null, null, null, reason);
+    }
+
+    public boolean isAvailable() {
+        return unavailableReason == null;
+    }
+
+    public boolean isDiscounted() {
+        return effectivePrice != null && approximatePrice != null && effectivePrice < approximatePrice;
+    }
+}
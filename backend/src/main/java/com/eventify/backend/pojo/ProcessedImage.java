@@ -0,0 +1,31 @@
+package com.eventify.backend.pojo;
+
+import com.eventify.backend.util.SpoolingOutputStream;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * An image ready for upload: where to read its bytes from, how many there are and their type.
+ * The bytes are either the compressed output (spooled, see SpoolingOutputStream) or the original upload when it
+ * could not be compressed; neither is held as one big array. Close it once uploaded to drop the spool.
+ */
+public record ProcessedImage(InputStreamSource content, long size, String contentType, SpoolingOutputStream spool)
+        implements Closeable {
+
+    public static ProcessedImage spooled(SpoolingOutputStream spool, String contentType) {
+        return new ProcessedImage(spool::openStream, spool.size(), contentType, spool);
+    }
+
+    public static ProcessedImage original(InputStreamSource file, long size, String contentType) {
+        return new ProcessedImage(file, size, contentType, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spool != null) {
+            spool.discard();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.eventify.backend.pojo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The main image of an upload plus its resized variants, keyed by variant file name (e.g. "thumb.webp").
+ * variants is empty when the upload could not be decoded and the original file is used as is.
+ */
+public record ProcessedImages(ProcessedImage main, Map<String, ProcessedImage> variants) implements Closeable {
+
+    @Override
+    public void close() throws IOException {
+        main.close();
+        for (ProcessedImage variant : variants.values()) {
+            variant.close();
+        }
+    }
+}
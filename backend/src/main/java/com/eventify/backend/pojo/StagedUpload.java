@@ -0,0 +1,8 @@
+package com.eventify.backend.pojo;
+
+/**
+ * An upload copied to the staging area, waiting for a MediaJob. index is the file's position in the request;
+ * previewUrl serves the staged bytes until the job stores the image.
+ */
+public record StagedUpload(int index, String token, String fileName, String contentType, long size, String previewUrl) {
+}
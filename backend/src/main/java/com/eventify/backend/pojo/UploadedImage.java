@@ -0,0 +1,8 @@
+package com.eventify.backend.pojo;
+
+/**
+ * Where an uploaded image ended up: the public URL of the main image and the comma-separated names of the
+ * variants stored next to it (null if none), as kept on EventImage / EventOffering.
+ */
+public record UploadedImage(String url, String variants) {
+}
@@ -1,6 +1,10 @@
 package com.eventify.backend.repository;
 
+import com.eventify.backend.config.CacheConfig;
 import com.eventify.backend.entity.Category;
+import com.eventify.backend.pojo.CatalogVersion;
+import com.eventify.backend.pojo.CategorySummary;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -10,13 +14,17 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
 
-    @Query("""
-        SELECT c.id, c.name, c.emoji, COUNT(DISTINCT eo.id) as offeringCount
-        FROM Category c
-        LEFT JOIN EventOffering eo ON (c.id = eo.mainCategory.id OR c.id IN (SELECT cat.id FROM eo.categories cat))
-        GROUP BY c.id, c.name, c.emoji
-        HAVING COUNT(DISTINCT eo.id) > 0
-        ORDER BY COUNT(DISTINCT eo.id) DESC, c.name ASC
-    """)
-    List<Object[]> findCategoriesWithOfferingCount();
+    /**
+     * All categories as immutable summaries, cached until a category is created.
+     * Entities are never cached, so a write can't change what the cache serves before it commits.
+     */
+    @Cacheable(CacheConfig.CATEGORIES)
+    @Query("SELECT new com.eventify.backend.pojo.CategorySummary(c.id, c.name, c.emoji) FROM Category c ORDER BY c.id")
+    List<CategorySummary> findAllSummaries();
+
+    /**
+     * Count and latest update time of all categories, without loading them
+     */
+    @Query("SELECT new com.eventify.backend.pojo.CatalogVersion(COUNT(c), MAX(c.updatedAt)) FROM Category c")
+    CatalogVersion findCatalogVersion();
 }
@@ -2,6 +2,13 @@ package com.eventify.backend.repository;
 
 import com.eventify.backend.entity.EventImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface EventImageRepository extends JpaRepository<EventImage, Long> {
+
+    @Query("SELECT i.url FROM EventImage i WHERE i.event.id = :eventId")
+    List<String> findUrlsByEventId(@Param("eventId") Long eventId);
 }
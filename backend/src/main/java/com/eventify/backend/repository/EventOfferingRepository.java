@@ -1,43 +1,62 @@
 package com.eventify.backend.repository;
 
 import com.eventify.backend.entity.EventOffering;
+import com.eventify.backend.pojo.CatalogVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EventOfferingRepository extends JpaRepository<EventOffering, Long> {
-    List<EventOffering> findByMainCategory(com.eventify.backend.entity.Category mainCategory);
-
+    /**
+     * All offerings with categories, for building OfferingCatalogIndex
+     */
     @Query("SELECT DISTINCT eo FROM EventOffering eo LEFT JOIN FETCH eo.categories LEFT JOIN FETCH eo.mainCategory")
     List<EventOffering> findAllWithCategories();
 
-    @Query("SELECT DISTINCT eo FROM EventOffering eo " +
-           "LEFT JOIN FETCH eo.categories c " +
-           "LEFT JOIN FETCH eo.mainCategory mc " +
-           "WHERE (:search IS NULL OR :search = '' OR " +
-           "       LOWER(eo.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "       LOWER(eo.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-           "AND (:category IS NULL OR :category = '' OR :category = 'undefined' OR " +
-           "     LOWER(mc.name) = LOWER(:category) OR " +
-           "     EXISTS (SELECT 1 FROM eo.categories cat WHERE LOWER(cat.name) = LOWER(:category))) " +
-           "AND (:minPrice IS NULL OR eo.approximatePrice >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR eo.approximatePrice <= :maxPrice)")
-    List<EventOffering> searchOfferings(
-            @Param("search") String search,
-            @Param("category") String category,
-            @Param("minPrice") Double minPrice,
-            @Param("maxPrice") Double maxPrice,
-            @Param("sort") String sort
-    );
-
     @Query("SELECT DISTINCT eo FROM EventOffering eo " +
            "LEFT JOIN FETCH eo.categories c " +
            "LEFT JOIN FETCH eo.mainCategory " +
            "WHERE eo.id = :id")
     Optional<EventOffering> findByIdWithCategories(@Param("id") Long id);
+
+    /**
+     * Count and latest update time of all offerings, without loading them
+     */
+    @Query("SELECT new com.eventify.backend.pojo.CatalogVersion(COUNT(eo), MAX(eo.updatedAt)) FROM EventOffering eo")
+    CatalogVersion findCatalogVersion();
+
+    /**
+     * Version of a single offering (count is 0 when it does not exist)
+     */
+    @Query("SELECT new com.eventify.backend.pojo.CatalogVersion(COUNT(eo), MAX(eo.updatedAt)) FROM EventOffering eo WHERE eo.id = :id")
+    CatalogVersion findVersionById(@Param("id") Long id);
+
+    /**
+     * Offerings saved before effective prices were stored
+     */
+    List<EventOffering> findByEffectivePriceIsNullAndApproximatePriceIsNotNull();
+
+    /**
+     * Sets the effective price of every GLOBAL offering to its approximate price times factor, rounded to whole
+     * rupees, in one statement. Bumps updated_at so the offerings ETag moves. Returns the number of rows updated.
+     */
+    @Modifying
+    @Query("UPDATE EventOffering eo SET eo.effectivePrice = ROUND(eo.approximatePrice * :factor, 0), eo.updatedAt = :now " +
+           "WHERE UPPER(eo.discountType) = 'GLOBAL'")
+    int repriceGlobal(@Param("factor") double factor, @Param("now") Instant now);
+
+    /**
+     * Resets the effective price of every GLOBAL offering to its approximate price (no global discount).
+     */
+    @Modifying
+    @Query("UPDATE EventOffering eo SET eo.effectivePrice = eo.approximatePrice, eo.updatedAt = :now " +
+           "WHERE UPPER(eo.discountType) = 'GLOBAL'")
+    int resetGlobalPrices(@Param("now") Instant now);
 }
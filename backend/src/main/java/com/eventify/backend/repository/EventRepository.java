@@ -1,10 +1,16 @@
 package com.eventify.backend.repository;
 
 import com.eventify.backend.entity.Event;
+import com.eventify.backend.pojo.CatalogVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +23,13 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT DISTINCT e FROM Event e LEFT JOIN FETCH e.images LEFT JOIN FETCH e.category")
     List<Event> findAllWithImages();
 
+    /**
+     * All events with images and category in the given order. The category is joined as "c" so callers can
+     * sort on c.name.
+     */
+    @Query("SELECT DISTINCT e FROM Event e LEFT JOIN FETCH e.images LEFT JOIN FETCH e.category c")
+    List<Event> findAllWithImages(Sort sort);
+
     /**
      * Fetches a specific event with its images in a single query
      */
@@ -24,8 +37,43 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     Optional<Event> findByIdWithImages(@Param("id") Long id);
 
     /**
-     * Fetches recent events with their images ordered by date desc
+     * Ids of the first page of events, newest first (keyset pagination on date, id).
+     * Also used as the top-N query for recent events.
+     */
+    @Query("SELECT e.id FROM Event e ORDER BY e.date DESC, e.id DESC")
+    List<Long> findPageIds(Pageable pageable);
+
+    /**
+     * Ids of the events that come after the given (date, id) cursor, newest first
+     */
+    @Query("SELECT e.id FROM Event e " +
+           "WHERE e.date < :date OR (e.date = :date AND e.id < :id) " +
+           "ORDER BY e.date DESC, e.id DESC")
+    List<Long> findPageIdsAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Fetches the given events with their images and category in a single query
+     */
+    @Query("SELECT DISTINCT e FROM Event e LEFT JOIN FETCH e.images LEFT JOIN FETCH e.category WHERE e.id IN :ids")
+    List<Event> findAllWithImagesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of one page of events in the order given by the pageable's sort.
+     * The category is joined as "c" so callers can sort on c.name.
+     */
+    @Query(value = "SELECT e.id FROM Event e LEFT JOIN e.category c",
+           countQuery = "SELECT COUNT(e) FROM Event e")
+    Page<Long> findIdPage(Pageable pageable);
+
+    /**
+     * Count and latest update time of all events, without loading them
+     */
+    @Query("SELECT new com.eventify.backend.pojo.CatalogVersion(COUNT(e), MAX(e.updatedAt)) FROM Event e")
+    CatalogVersion findCatalogVersion();
+
+    /**
+     * Version of a single event (count is 0 when it does not exist)
      */
-    @Query(value = "SELECT DISTINCT e FROM Event e LEFT JOIN FETCH e.images LEFT JOIN FETCH e.category ORDER BY e.date DESC")
-    List<Event> findRecentEventsWithImages();
+    @Query("SELECT new com.eventify.backend.pojo.CatalogVersion(COUNT(e), MAX(e.updatedAt)) FROM Event e WHERE e.id = :id")
+    CatalogVersion findVersionById(@Param("id") Long id);
 }
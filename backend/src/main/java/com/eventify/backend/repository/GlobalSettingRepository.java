@@ -1,10 +1,32 @@
 package com.eventify.backend.repository;
 
+import com.eventify.backend.config.CacheConfig;
 import com.eventify.backend.entity.GlobalSetting;
+import com.eventify.backend.pojo.CatalogVersion;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface GlobalSettingRepository extends JpaRepository<GlobalSetting, Long> {
+
+    /**
+     * Looks up a setting by key for writing; never cached
+     */
     Optional<GlobalSetting> findByKey(String key);
+
+    /**
+     * Value of a setting, cached per key until the setting is written
+     */
+    @Cacheable(cacheNames = CacheConfig.GLOBAL_SETTINGS, key = "#p0", unless = "#result == null")
+    @Query("SELECT gs.value FROM GlobalSetting gs WHERE gs.key = :key")
+    Optional<String> findValueByKey(@Param("key") String key);
+
+    /**
+     * Version of a single setting (count is 0 when it has never been set)
+     */
+    @Query("SELECT new com.eventify.backend.pojo.CatalogVersion(COUNT(gs), MAX(gs.updatedAt)) FROM GlobalSetting gs WHERE gs.key = :key")
+    CatalogVersion findVersionByKey(@Param("key") String key);
 }
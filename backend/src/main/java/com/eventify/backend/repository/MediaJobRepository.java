@@ -0,0 +1,34 @@
+package com.eventify.backend.repository;
+
+import com.eventify.backend.entity.MediaJob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MediaJobRepository extends JpaRepository<MediaJob, Long> {
+
+    /**
+     * Locks the next batch of due jobs, skipping rows another worker holds (as NotificationOutboxRepository.lockDue).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM MediaJob j WHERE j.status = 'PENDING' AND j.nextAttemptAt <= :now ORDER BY j.nextAttemptAt, j.id")
+    List<MediaJob> lockDue(@Param("now") Instant now, Pageable pageable);
+
+    List<MediaJob> findByTargetAndOwnerIdOrderByIdAsc(String target, Long ownerId);
+
+    Optional<MediaJob> findFirstByStagedToken(String stagedToken);
+
+    boolean existsByStagedTokenAndStatus(String stagedToken, String status);
+}
@@ -0,0 +1,51 @@
+package com.eventify.backend.repository;
+
+import com.eventify.backend.entity.NotificationOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Locks the next batch of due notifications. Rows already locked by another relay are skipped
+     * (FOR UPDATE SKIP LOCKED on PostgreSQL), so several instances can drain the outbox side by side.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM NotificationOutbox n WHERE n.status = 'PENDING' AND n.nextAttemptAt <= :now ORDER BY n.nextAttemptAt, n.id")
+    List<NotificationOutbox> lockDue(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Ids of queued notifications with this dedup key that no relay has picked up yet, newest first.
+     */
+    @Query("SELECT n.id FROM NotificationOutbox n WHERE n.dedupKey = :dedupKey AND n.channel = :channel AND n.status = 'PENDING' AND n.attempts = 0 ORDER BY n.id DESC")
+    List<Long> findQueuedIds(@Param("dedupKey") String dedupKey, @Param("channel") String channel, Pageable pageable);
+
+    /**
+     * Replaces the content of a queued notification in a single UPDATE, only while no relay has claimed it
+     * (claiming increments attempts under the same row lock). Returns 0 if it was claimed in the meantime.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox n SET n.subject = :subject, n.body = :body WHERE n.id = :id AND n.status = 'PENDING' AND n.attempts = 0")
+    int refreshQueued(@Param("id") Long id, @Param("subject") String subject, @Param("body") String body);
+
+    /**
+     * The oldest queued, not yet attempted digest notification for a recipient; new ones join its window.
+     */
+    Optional<NotificationOutbox> findFirstByChannelAndRecipientAndStatusAndAttemptsAndUrgentFalseOrderByIdAsc(String channel, String recipient, String status, int attempts);
+}
@@ -0,0 +1,41 @@
+package com.eventify.backend.repository;
+
+import com.eventify.backend.entity.StoredImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredImageRepository extends JpaRepository<StoredImage, Long> {
+
+    Optional<StoredImage> findByContentHash(String contentHash);
+
+    Optional<StoredImage> findFirstByUrl(String url);
+
+    /**
+     * Adds a reference in a single UPDATE, so concurrent uploads of the same file cannot lose a count.
+     * Returns 0 if the hash is not stored (anymore).
+     */
+    @Modifying
+    @Query("UPDATE StoredImage s SET s.refCount = s.refCount + 1 WHERE s.contentHash = :hash")
+    int acquire(@Param("hash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE StoredImage s SET s.refCount = s.refCount + 1 WHERE s.url = :url")
+    int acquireByUrl(@Param("url") String url);
+
+    @Modifying
+    @Query("UPDATE StoredImage s SET s.refCount = s.refCount - 1 WHERE s.id = :id AND s.refCount > 0")
+    int release(@Param("id") Long id);
+
+    /**
+     * Deletes the row only if nothing acquired it in the meantime; returns 1 if it was deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM StoredImage s WHERE s.id = :id AND s.refCount <= 0")
+    int deleteIfUnreferenced(@Param("id") Long id);
+}
@@ -0,0 +1,56 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.pojo.CatalogVersion;
+import com.eventify.backend.repository.CategoryRepository;
+import com.eventify.backend.repository.EventOfferingRepository;
+import com.eventify.backend.repository.EventRepository;
+import com.eventify.backend.repository.GlobalSettingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Versions of the catalogue collections, used for ETag / Last-Modified on the public GET endpoints.
+ * Each version is a single aggregate query (count + max updated_at); no entities are loaded.
+ */
+@Service
+public class CatalogVersionService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventOfferingRepository eventOfferingRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private GlobalSettingRepository globalSettingRepository;
+
+    public CatalogVersion events() {
+        return eventRepository.findCatalogVersion();
+    }
+
+    public CatalogVersion event(Long id) {
+        return eventRepository.findVersionById(id);
+    }
+
+    /**
+     * Offering responses embed their categories, so they depend on both tables.
+     */
+    public CatalogVersion offerings() {
+        return eventOfferingRepository.findCatalogVersion().and(categories());
+    }
+
+    public CatalogVersion offering(Long id) {
+        return eventOfferingRepository.findVersionById(id);
+    }
+
+    public CatalogVersion categories() {
+        return categoryRepository.findCatalogVersion();
+    }
+
+    public CatalogVersion setting(String key) {
+        return globalSettingRepository.findVersionByKey(key);
+    }
+}
@@ -6,28 +6,32 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Service
-public class EmailService {
+public class EmailService implements NotificationSender {
       @Autowired(required = false)
     private JavaMailSender mailSender;
-    
-    public void sendEmail(String to, String subject, String body) {
-        try {
-            if (mailSender == null) {
-                System.out.println("Email not configured. Would send email to " + to + " with subject: " + subject);
-                return;
-            }
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            message.setFrom("noreply@eventify.com");
-            
-            mailSender.send(message);
-            System.out.println("Email sent successfully to: " + to);
-        } catch (Exception e) {
-            System.err.println("Failed to send email to " + to + ": " + e.getMessage());
-            // Don't throw exception - just log the error
+
+    @Override
+    public String channel() {
+        return NotificationDispatcher.EMAIL;
+    }
+
+    /**
+     * Sends a plain-text email, throwing if the mail server rejects it.
+     */
+    @Override
+    public void send(String to, String subject, String body) {
+        if (mailSender == null) {
+            System.out.println("Email not configured. Would send email to " + to + " with subject: " + subject);
+            return;
         }
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(body);
+        message.setFrom("noreply@eventify.com");
+
+        mailSender.send(message);
+        System.out.println("Email sent successfully to: " + to);
     }
 }
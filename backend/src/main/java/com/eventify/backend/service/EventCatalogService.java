@@ -0,0 +1,187 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.config.CacheConfig;
+import com.eventify.backend.entity.Event;
+import com.eventify.backend.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Read-side queries for the public event catalogue.
+ * Large listings are served in two steps: a narrow query pages the event ids,
+ * then the events for that page are fetched with their images in one batch.
+ */
+@Service
+public class EventCatalogService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Value("${events.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${events.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${events.recent.limit:10}")
+    private int recentLimit;
+
+    /**
+     * Every event with images and category, cached until an event is added, updated or deleted.
+     */
+    @Cacheable(CacheConfig.EVENTS)
+    @Transactional(readOnly = true)
+    public List<Event> findAll() {
+        List<Event> events = eventRepository.findAllWithImages();
+        for (Event event : events) {
+            Hibernate.initialize(event.getDescriptions());
+        }
+        return events;
+    }
+
+    /**
+     * A single event with images and category, cached per id. Missing events are not cached.
+     */
+    @Cacheable(cacheNames = CacheConfig.EVENT, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<Event> findById(Long id) {
+        Optional<Event> event = eventRepository.findByIdWithImages(id);
+        event.ifPresent(e -> Hibernate.initialize(e.getDescriptions()));
+        return event;
+    }
+
+    /**
+     * The most recent events (by date, then id), limited in SQL to events.recent.limit rows.
+     * Served from a short-lived cache that the event write paths evict.
+     */
+    @Cacheable(CacheConfig.RECENT_EVENTS)
+    @Transactional(readOnly = true)
+    public List<Event> findRecent() {
+        List<Long> ids = eventRepository.findPageIds(PageRequest.of(0, recentLimit));
+        return findAllWithImagesInOrder(ids);
+    }
+
+    /**
+     * One page of events ordered by date (newest first), then id.
+     * Pass a null cursor for the first page.
+     */
+    @Transactional(readOnly = true)
+    public EventPage findPage(EventCursor cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Ask for one extra id to find out whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Long> ids = cursor == null
+                ? eventRepository.findPageIds(limit)
+                : eventRepository.findPageIdsAfter(cursor.date(), cursor.id(), limit);
+
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        List<Event> events = findAllWithImagesInOrder(ids);
+
+        EventCursor next = null;
+        if (hasMore && !events.isEmpty()) {
+            Event last = events.get(events.size() - 1);
+            next = new EventCursor(last.getDate(), last.getId());
+        }
+        return new EventPage(events, next, pageSize);
+    }
+
+    /**
+     * Events sorted in the database by title, date, category, featured or id (unknown fields fall back to id).
+     * Titles sort on their first Event.TITLE_KEY_LENGTH characters. Ties are broken by id so pages stay stable.
+     * When page and size are both null every event is returned, fetched in one sorted query.
+     */
+    @Transactional(readOnly = true)
+    public Page<Event> findSorted(String sort, String order, Integer page, Integer size) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(order) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort dbSort = switch (sort) {
+            case "title" -> Sort.by(direction, "titleKey");
+            case "date", "featured" -> Sort.by(direction, sort);
+            case "category" -> JpaSort.unsafe(direction, "c.name");
+            default -> Sort.unsorted();
+        };
+        dbSort = dbSort.and(Sort.by(direction, "id"));
+
+        if (page == null && size == null) {
+            // Paging by id would put every id into one IN list
+            List<Event> events = eventRepository.findAllWithImages(dbSort);
+            for (Event event : events) {
+                Hibernate.initialize(event.getDescriptions());
+            }
+            return new PageImpl<>(events, Pageable.unpaged(dbSort), events.size());
+        }
+        Pageable pageable = PageRequest.of(page != null && page >= 0 ? page : 0, resolvePageSize(size), dbSort);
+        Page<Long> ids = eventRepository.findIdPage(pageable);
+        return new PageImpl<>(findAllWithImagesInOrder(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    /**
+     * Fetches the given events with images and category, preserving the order of the ids.
+     * Descriptions are initialized here (batch-loaded) so the events can be serialized outside the session.
+     */
+    private List<Event> findAllWithImagesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Event> byId = new HashMap<>();
+        for (Event event : eventRepository.findAllWithImagesByIdIn(ids)) {
+            byId.put(event.getId(), event);
+        }
+        List<Event> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Event event = byId.get(id);
+            if (event != null) {
+                Hibernate.initialize(event.getDescriptions());
+                ordered.add(event);
+            }
+        }
+        return ordered;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    /**
+     * Position of the last event on a page. Serialized as "date_id", e.g. "2025-06-01_42".
+     */
+    public record EventCursor(LocalDate date, Long id) {
+
+        public static EventCursor parse(String value) {
+            int sep = value.lastIndexOf('_');
+            if (sep <= 0 || sep == value.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+            return new EventCursor(LocalDate.parse(value.substring(0, sep)), Long.parseLong(value.substring(sep + 1)));
+        }
+
+        @Override
+        public String toString() {
+            return date + "_" + id;
+        }
+    }
+
+    /**
+     * A page of events plus the cursor for the following page (null on the last page).
+     */
+    public record EventPage(List<Event> events, EventCursor nextCursor, int size) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.Event;
+import com.eventify.backend.pojo.CatalogVersion;
+import com.eventify.backend.repository.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-rendered JSON of the whole event catalogue (GET /api/events), plus a gzip variant and a strong ETag.
+ * Each event is serialized once and kept as its own byte[]; when an event is written only that event is
+ * re-serialized and the array is re-assembled, so reads are a plain copy of the current bytes.
+ * Events are listed in id order.
+ * <p>
+ * Each read passes the current version of the events and categories tables; if the snapshot was built from
+ * something else (another instance or a direct database change wrote events or categories) it is rebuilt.
+ */
+@Service
+public class EventCatalogSnapshot {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTx;
+
+    // Serialized events by id; only touched while holding the monitor
+    private final TreeMap<Long, byte[]> eventJson = new TreeMap<>();
+    // updated_at of each serialized event and the categories version of the last full build, same monitor
+    private final Map<Long, Instant> eventUpdatedAt = new HashMap<>();
+    private CatalogVersion categoriesVersion;
+
+    private volatile Snapshot current;
+
+    public EventCatalogSnapshot(PlatformTransactionManager transactionManager) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Returns the snapshot for the given catalogue version (CatalogVersionService events and categories),
+     * building it from the database on first use or when it no longer matches that version.
+     */
+    public Snapshot get(CatalogVersion version) {
+        Snapshot snapshot = current;
+        if (snapshot == null || !snapshot.isFor(version)) {
+            synchronized (this) {
+                snapshot = current;
+                if (snapshot == null || !snapshot.isFor(version)) {
+                    rebuildAll();
+                    snapshot = current;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Re-serializes one event after it was created or updated. Does nothing until the snapshot has been built.
+     */
+    public synchronized void refresh(Long eventId) {
+        if (current == null) {
+            return;
+        }
+        try {
+            readOnlyTx.executeWithoutResult(status -> eventRepository.findByIdWithImages(eventId).ifPresentOrElse(
+                    this::put,
+                    () -> drop(eventId)));
+            current = assemble();
+        } catch (RuntimeException e) {
+            // Never serve a stale catalogue: drop the snapshot so the next read rebuilds it
+            System.err.println("Failed to refresh event snapshot for event " + eventId + ": " + e.getMessage());
+            current = null;
+        }
+    }
+
+    /**
+     * Drops a deleted event from the snapshot.
+     */
+    public synchronized void remove(Long eventId) {
+        if (current == null) {
+            return;
+        }
+        if (drop(eventId)) {
+            current = assemble();
+        }
+    }
+
+    /**
+     * Reloads every event; used for the first build and whenever the snapshot is out of date.
+     */
+    public synchronized void rebuildAll() {
+        eventJson.clear();
+        eventUpdatedAt.clear();
+        readOnlyTx.executeWithoutResult(status -> {
+            // Read first: a category written during the build leaves the snapshot stale, never falsely current
+            categoriesVersion = catalogVersionService.categories();
+            for (Event event : eventRepository.findAllWithImages()) {
+                put(event);
+            }
+        });
+        current = assemble();
+    }
+
+    private void put(Event event) {
+        eventJson.put(event.getId(), serialize(event));
+        eventUpdatedAt.put(event.getId(), event.getUpdatedAt());
+    }
+
+    private boolean drop(Long eventId) {
+        eventUpdatedAt.remove(eventId);
+        return eventJson.remove(eventId) != null;
+    }
+
+    // Same count + latest updated_at as CatalogVersionService.events() while the snapshot is current
+    private CatalogVersion version() {
+        Instant latest = null;
+        for (Instant updatedAt : eventUpdatedAt.values()) {
+            if (updatedAt != null && (latest == null || updatedAt.isAfter(latest))) {
+                latest = updatedAt;
+            }
+        }
+        return new CatalogVersion((long) eventUpdatedAt.size(), latest).and(categoriesVersion);
+    }
+
+    private byte[] serialize(Event event) {
+        Hibernate.initialize(event.getDescriptions());
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize event " + event.getId(), e);
+        }
+    }
+
+    private Snapshot assemble() {
+        int length = 2 + Math.max(0, eventJson.size() - 1);
+        for (byte[] json : eventJson.values()) {
+            length += json.length;
+        }
+        byte[] body = new byte[length];
+        int pos = 0;
+        body[pos++] = '[';
+        boolean first = true;
+        for (Map.Entry<Long, byte[]> entry : eventJson.entrySet()) {
+            if (!first) {
+                body[pos++] = ',';
+            }
+            byte[] json = entry.getValue();
+            System.arraycopy(json, 0, body, pos, json.length);
+            pos += json.length;
+            first = false;
+        }
+        body[pos] = ']';
+        return new Snapshot(body, gzip(body), hash(body), version().getEtag());
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Immutable rendering of the catalogue. The gzip variant gets its own strong ETag.
+     */
+    public record Snapshot(byte[] json, byte[] gzip, String hash, String version) {
+
+        public boolean isFor(CatalogVersion catalogVersion) {
+            return version.equals(catalogVersion.getEtag());
+        }
+
+        public String etag() {
+            return "\"" + hash + "\"";
+        }
+
+        public String gzipEtag() {
+            return "\"" + hash + "-gzip\"";
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.pojo.ProcessedImages;
+import com.eventify.backend.pojo.UploadedImage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compresses and uploads images in parallel for MediaJobWorker.
+ * Each image is compressed on the compression pool (CPU bound, sized to the cores) and then handed to the upload
+ * pool (network bound, sized to the storage connection pool), so one image can be compressed while another is
+ * still uploading. Both pools are bounded; when a queue is full the submitting thread does the work itself.
+ * Images waiting between the two stages are spooled (see SupabaseStorageService.compress), so a backed-up upload
+ * queue holds at most supabase.upload.memory-threshold of heap per image and variant.
+ * Each file is hashed first; one whose content is already stored (see StoredImageService) skips both pools and
+ * reuses the stored object.
+ */
+@Service
+public class ImageUploadService {
+
+    @Autowired
+    private SupabaseStorageService supabaseStorageService;
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    private final ThreadPoolExecutor compressPool;
+    private final ThreadPoolExecutor uploadPool;
+
+    public ImageUploadService(
+            @Value("${images.upload.compress-threads:0}") int compressThreads,
+            @Value("${images.upload.upload-threads:4}") int uploadThreads,
+            @Value("${images.upload.queue-capacity:64}") int queueCapacity
+    ) {
+        int cpuThreads = compressThreads > 0 ? compressThreads : Runtime.getRuntime().availableProcessors();
+        this.compressPool = pool(cpuThreads, queueCapacity, "image-compress-");
+        this.uploadPool = pool(uploadThreads, queueCapacity, "image-upload-");
+    }
+
+    /**
+     * Stores one image at bucket/path (or reuses an identical stored one). The future fails with the
+     * underlying exception, possibly wrapped in CompletionException / UncheckedIOException (see rootCause).
+     */
+    public CompletableFuture<UploadedImage> process(MultipartFile file, String bucket, String path) {
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return storedImageService.hash(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, compressPool)
+                .thenCompose(hash -> {
+                    UploadedImage existing = storedImageService.reuse(hash);
+                    if (existing != null) {
+                        return CompletableFuture.completedFuture(existing);
+                    }
+                    return CompletableFuture
+                            .supplyAsync(() -> {
+                                try {
+                                    return supabaseStorageService.compress(file);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            }, compressPool)
+                            .thenApplyAsync(image -> {
+                                // Closing drops the image's spool whether or not the upload worked
+                                try (ProcessedImages processed = image) {
+                                    return storedImageService.record(hash, bucket, path,
+                                            supabaseStorageService.upload(processed, bucket, path));
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            }, uploadPool);
+                });
+    }
+
+    /**
+     * The exception that actually failed a process() future.
+     */
+    public static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException
+                || cause instanceof UncheckedIOException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static ThreadPoolExecutor pool(int threads, int queueCapacity, String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, namePrefix + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compressPool.shutdown();
+        uploadPool.shutdown();
+    }
+}
@@ -0,0 +1,193 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.EventImage;
+import com.eventify.backend.entity.EventOffering;
+import com.eventify.backend.entity.MediaJob;
+import com.eventify.backend.pojo.ImageUploadResult;
+import com.eventify.backend.pojo.MediaJobStatus;
+import com.eventify.backend.pojo.StagedUpload;
+import com.eventify.backend.repository.MediaJobRepository;
+import com.eventify.backend.util.StagedFile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Front half of the image pipeline: requests hand their uploads over here instead of compressing and uploading
+ * them while the admin waits. The raw file is copied to images.staging.dir and served from
+ * /api/media/staged/{token} as a placeholder URL; a MediaJob row, written in the request's transaction, tells
+ * MediaJobWorker to store it. Progress is reported by GET /api/media/jobs.
+ */
+@Service
+public class MediaJobService {
+
+    @Autowired
+    private MediaJobRepository mediaJobRepository;
+
+    @Autowired
+    private MediaJobWorker mediaJobWorker;
+
+    @Value("${images.staging.dir:${java.io.tmpdir}/eventify-staging}")
+    private Path stagingDir;
+
+    // Staged files without a pending job (e.g. the request failed after staging) are removed after this long
+    @Value("${images.staging.max-age:1d}")
+    private Duration maxAge;
+
+    /**
+     * Copies an upload into the staging area. Must be called on the request thread (the preview URL is built
+     * from the current request).
+     */
+    public StagedUpload stage(MultipartFile file, int index) throws IOException {
+        String token = UUID.randomUUID().toString();
+        Files.createDirectories(stagingDir);
+        file.transferTo(stagedPath(token));
+        String previewUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(StagedFile.PREVIEW_PATH + token)
+                .toUriString();
+        return new StagedUpload(index, token, file.getOriginalFilename(), file.getContentType(), file.getSize(), previewUrl);
+    }
+
+    /**
+     * Stages every non-empty file; files that could not be staged are added to errors instead.
+     */
+    public List<StagedUpload> stageAll(MultipartFile[] files, List<ImageUploadResult> errors) {
+        List<StagedUpload> staged = new ArrayList<>();
+        if (files == null) {
+            return staged;
+        }
+        for (int i = 0; i < files.length; i++) {
+            MultipartFile file = files[i];
+            if (file.isEmpty()) {
+                continue;
+            }
+            try {
+                staged.add(stage(file, i));
+            } catch (IOException e) {
+                System.err.println("❌ Error staging image " + i + " (" + file.getOriginalFilename() + "): " + e.getMessage());
+                errors.add(ImageUploadResult.failed(i, file.getOriginalFilename(), e.getMessage()));
+            }
+        }
+        return staged;
+    }
+
+    /**
+     * Queues storing a staged upload for a saved, pending event image (its url is the preview URL).
+     */
+    public MediaJob enqueue(EventImage image, StagedUpload upload, String bucket) {
+        Long eventId = image.getEvent().getId();
+        return enqueue(new MediaJob(MediaJob.EVENT_IMAGE, eventId, image.getId(), bucket,
+                eventId + "/" + objectName(upload), upload.token(), upload.fileName(), upload.contentType(), upload.size()));
+    }
+
+    /**
+     * Queues storing a staged upload for a saved offering whose decoration image is the preview URL.
+     */
+    public MediaJob enqueue(EventOffering offering, StagedUpload upload, String bucket) {
+        return enqueue(new MediaJob(MediaJob.OFFERING_IMAGE, offering.getId(), null, bucket,
+                objectName(upload), upload.token(), upload.fileName(), upload.contentType(), upload.size()));
+    }
+
+    private MediaJob enqueue(MediaJob job) {
+        MediaJob saved = mediaJobRepository.save(job);
+        wakeWorkerAfterCommit();
+        return saved;
+    }
+
+    public List<MediaJobStatus> statusFor(String target, Long ownerId) {
+        return mediaJobRepository.findByTargetAndOwnerIdOrderByIdAsc(target, ownerId).stream()
+                .map(MediaJobStatus::of)
+                .toList();
+    }
+
+    public Optional<MediaJobStatus> status(Long jobId) {
+        return mediaJobRepository.findById(jobId).map(MediaJobStatus::of);
+    }
+
+    /**
+     * The staged file behind a preview token, with the content type it was uploaded as, if it is still staged.
+     */
+    public Optional<StagedFile> staged(String token) {
+        try {
+            UUID.fromString(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Path file = stagedPath(token);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return mediaJobRepository.findFirstByStagedToken(token)
+                .map(job -> new StagedFile(file, job.getFileName(), job.getContentType()));
+    }
+
+    static boolean isPreviewOf(String url, MediaJob job) {
+        return url != null && url.endsWith(StagedFile.PREVIEW_PATH + job.getStagedToken());
+    }
+
+    private Path stagedPath(String token) {
+        return stagingDir.resolve(token);
+    }
+
+    /**
+     * Removes staged files nobody is going to process: left behind by requests that failed after staging, or
+     * by jobs interrupted between finishing and cleaning up.
+     */
+    @Scheduled(fixedDelayString = "${images.staging.sweep-interval:1h}")
+    public void sweepStagingDir() {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(maxAge);
+        try (Stream<Path> files = Files.list(stagingDir)) {
+            files.forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                            && !mediaJobRepository.existsByStagedTokenAndStatus(file.getFileName().toString(), MediaJob.PENDING)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    System.err.println("Failed to clean up staged upload " + file + ": " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to list staging directory " + stagingDir + ": " + e.getMessage());
+        }
+    }
+
+    private static String objectName(StagedUpload upload) {
+        String extension = StringUtils.getFilenameExtension(upload.fileName());
+        return UUID.randomUUID() + (extension != null ? "." + extension : "");
+    }
+
+    // Wake the worker once the job row is visible to it; the periodic poll covers anything missed
+    private void wakeWorkerAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mediaJobWorker.wakeUp();
+                }
+            });
+        } else {
+            mediaJobWorker.wakeUp();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.config.CacheConfig;
+import com.eventify.backend.entity.Event;
+import com.eventify.backend.entity.MediaJob;
+import com.eventify.backend.pojo.UploadedImage;
+import com.eventify.backend.repository.EventImageRepository;
+import com.eventify.backend.repository.EventOfferingRepository;
+import com.eventify.backend.repository.MediaJobRepository;
+import com.eventify.backend.util.StagedFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Back half of the image pipeline: stores the uploads staged by MediaJobService.
+ * Due jobs are claimed in batches the way NotificationRelay claims notifications (attempt count plus a lease, so a
+ * job held by a worker that dies is picked up again) and processed in parallel on ImageUploadService's pools.
+ * A stored image is then attached only if its event image / offering still shows the job's preview URL; if the
+ * admin replaced or removed it meanwhile, the stored image's reference is released instead.
+ * Failures are retried with exponential backoff; after images.jobs.max-attempts (or right away if the staged
+ * file is gone) the job is FAILED and its placeholder removed. Outcomes are counted in images.jobs{outcome}.
+ */
+@Service
+public class MediaJobWorker {
+
+    @Autowired
+    private MediaJobRepository mediaJobRepository;
+
+    @Autowired
+    private EventImageRepository eventImageRepository;
+
+    @Autowired
+    private EventOfferingRepository eventOfferingRepository;
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    @Autowired
+    private EventCatalogSnapshot eventCatalogSnapshot;
+
+    @Autowired
+    private OfferingCatalogIndex offeringCatalogIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor workerThread;
+
+    @Value("${images.staging.dir:${java.io.tmpdir}/eventify-staging}")
+    private Path stagingDir;
+
+    @Value("${images.jobs.batch-size:8}")
+    private int batchSize;
+
+    @Value("${images.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${images.jobs.backoff:30s}")
+    private Duration backoff;
+
+    @Value("${images.jobs.max-backoff:10m}")
+    private Duration maxBackoff;
+
+    @Value("${images.jobs.lease:10m}")
+    private Duration lease;
+
+    public MediaJobWorker(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        // One drain at a time; a wake-up while a drain is already queued is dropped, since that drain sees the new jobs
+        this.workerThread = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                task -> {
+                    Thread thread = new Thread(task, "media-jobs");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Schedules a drain on the worker thread. Never blocks the caller.
+     */
+    public void wakeUp() {
+        if (!workerThread.isShutdown()) {
+            workerThread.execute(this::drain);
+        }
+    }
+
+    /**
+     * Picks up jobs left over from a previous run as well as retries whose backoff has passed.
+     */
+    @Scheduled(fixedDelayString = "${images.jobs.poll-interval:15s}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        wakeUp();
+    }
+
+    private void drain() {
+        try {
+            List<MediaJob> batch;
+            do {
+                batch = claimBatch();
+                process(batch);
+            } while (batch.size() == batchSize && !workerThread.isShutdown());
+        } catch (RuntimeException e) {
+            System.err.println("Media job worker failed: " + e.getMessage());
+        }
+    }
+
+    private List<MediaJob> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<MediaJob> jobs = mediaJobRepository.lockDue(now, PageRequest.of(0, batchSize));
+            for (MediaJob job : jobs) {
+                job.setAttempts(job.getAttempts() + 1);
+                job.setNextAttemptAt(now.plus(lease));
+            }
+            return jobs;
+        });
+    }
+
+    private void process(List<MediaJob> batch) {
+        // Start the whole batch before waiting on any of it, so the pools work on several images at once
+        Map<MediaJob, CompletableFuture<UploadedImage>> pending = new LinkedHashMap<>();
+        for (MediaJob job : batch) {
+            Path file = stagingDir.resolve(job.getStagedToken());
+            pending.put(job, Files.isRegularFile(file)
+                    ? imageUploadService.process(new StagedFile(file, job.getFileName(), job.getContentType()), job.getBucket(), job.getPath())
+                    : CompletableFuture.failedFuture(new NoSuchFileException(file.toString(), null, "Staged upload is missing")));
+        }
+        for (Map.Entry<MediaJob, CompletableFuture<UploadedImage>> entry : pending.entrySet()) {
+            MediaJob job = entry.getKey();
+            try {
+                succeed(job, entry.getValue().join());
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = ImageUploadService.rootCause(e);
+                String error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+                System.err.println("❌ Error processing image job " + job.getId() + " (" + job.getFileName() + "): " + error);
+                fail(job, error, cause instanceof NoSuchFileException);
+            }
+        }
+    }
+
+    private void succeed(MediaJob job, UploadedImage uploaded) {
+        boolean attached = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            boolean shown = attach(job, uploaded);
+            mediaJobRepository.findById(job.getId()).ifPresent(row -> {
+                row.setStatus(MediaJob.DONE);
+                row.setResultUrl(uploaded.url());
+                row.setLastError(null);
+                row.setFinishedAt(Instant.now());
+            });
+            return shown;
+        }));
+        if (attached) {
+            evict(job);
+        } else {
+            // Nothing shows this image anymore, so give back the reference the upload took
+            storedImageService.release(uploaded.url());
+        }
+        deleteStaged(job);
+        meterRegistry.counter("images.jobs", "outcome", attached ? "stored" : "discarded").increment();
+    }
+
+    private void fail(MediaJob job, String error, boolean permanent) {
+        boolean gaveUp = Boolean.TRUE.equals(transactionTemplate.execute(status -> mediaJobRepository.findById(job.getId())
+                .map(row -> {
+                    Instant now = Instant.now();
+                    row.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                    if (!permanent && row.getAttempts() < maxAttempts) {
+                        row.setNextAttemptAt(now.plus(backoffFor(row.getAttempts())));
+                        return false;
+                    }
+                    row.setStatus(MediaJob.FAILED);
+                    row.setFinishedAt(now);
+                    detach(row);
+                    System.err.println("Giving up on image job " + row.getId() + " after " + row.getAttempts() + " attempts");
+                    return true;
+                })
+                .orElse(false)));
+        if (gaveUp) {
+            evict(job);
+            deleteStaged(job);
+        }
+        meterRegistry.counter("images.jobs", "outcome", gaveUp ? "failed" : "retry").increment();
+    }
+
+    /**
+     * Swaps the stored image in for the preview. Returns false if the preview is no longer in use.
+     */
+    private boolean attach(MediaJob job, UploadedImage uploaded) {
+        if (MediaJob.EVENT_IMAGE.equals(job.getTarget())) {
+            return eventImageRepository.findById(job.getImageId())
+                    .filter(image -> MediaJobService.isPreviewOf(image.getUrl(), job))
+                    .map(image -> {
+                        image.setUrl(uploaded.url());
+                        image.setVariantNames(uploaded.variants());
+                        // Image-only changes do not dirty the event row, so bump its version explicitly
+                        image.getEvent().setUpdatedAt(Instant.now());
+                        return true;
+                    })
+                    .orElse(false);
+        }
+        return eventOfferingRepository.findById(job.getOwnerId())
+                .filter(offering -> MediaJobService.isPreviewOf(offering.getDecorationImageUrl(), job))
+                .map(offering -> {
+                    offering.setDecorationImageUrl(uploaded.url());
+                    offering.setDecorationImageVariantNames(uploaded.variants());
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Removes the placeholder of a job that will never finish, if it is still showing.
+     */
+    private void detach(MediaJob job) {
+        if (MediaJob.EVENT_IMAGE.equals(job.getTarget())) {
+            eventImageRepository.findById(job.getImageId())
+                    .filter(image -> MediaJobService.isPreviewOf(image.getUrl(), job))
+                    .ifPresent(image -> {
+                        Event event = image.getEvent();
+                        event.getImages().remove(image); // triggers orphanRemoval
+                        event.setUpdatedAt(Instant.now());
+                    });
+        } else {
+            eventOfferingRepository.findById(job.getOwnerId())
+                    .filter(offering -> MediaJobService.isPreviewOf(offering.getDecorationImageUrl(), job))
+                    .ifPresent(offering -> {
+                        offering.setDecorationImageUrl(null);
+                        offering.setDecorationImageVariantNames(null);
+                    });
+        }
+    }
+
+    // The caches of the admin write paths, which this change bypassed
+    private void evict(MediaJob job) {
+        if (MediaJob.EVENT_IMAGE.equals(job.getTarget())) {
+            eventCatalogSnapshot.refresh(job.getOwnerId());
+            evict(CacheConfig.EVENT, job.getOwnerId());
+            evict(CacheConfig.EVENTS, null);
+            evict(CacheConfig.RECENT_EVENTS, null);
+        } else {
+            offeringCatalogIndex.refresh(job.getOwnerId());
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key != null) {
+            cache.evict(key);
+        } else {
+            cache.clear();
+        }
+    }
+
+    private void deleteStaged(MediaJob job) {
+        try {
+            Files.deleteIfExists(stagingDir.resolve(job.getStagedToken()));
+        } catch (IOException e) {
+            // The staging sweep gets it later
+            System.err.println("Failed to delete staged upload " + job.getStagedToken() + ": " + e.getMessage());
+        }
+    }
+
+    // backoff, 2x backoff, 4x backoff, ... capped at max-backoff
+    private Duration backoffFor(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerThread.shutdown();
+        try {
+            // Unfinished jobs stay PENDING and are picked up again after restart
+            workerThread.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workerThread.shutdownNow();
+    }
+}
@@ -0,0 +1,71 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.NotificationOutbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Combines several queued notifications for one recipient into as few messages as the channel allows.
+ */
+final class NotificationDigest {
+
+    // Twilio rejects WhatsApp bodies over 1600 characters
+    private static final int WHATSAPP_MAX_LENGTH = 1600;
+
+    private static final String EMAIL_SEPARATOR = "\n\n═══════════════════════════════════════\n\n";
+    private static final String WHATSAPP_SEPARATOR = "\n\n―――――――――――\n\n";
+
+    private NotificationDigest() {}
+
+    /**
+     * Splits one recipient's rows into digests that each fit in a single message. Only WhatsApp has a length limit;
+     * a row too long to share a message is left on its own.
+     */
+    static List<List<NotificationOutbox>> split(String channel, List<NotificationOutbox> rows) {
+        if (!NotificationDispatcher.WHATSAPP.equals(channel)) {
+            return List.of(rows);
+        }
+        List<List<NotificationOutbox>> digests = new ArrayList<>();
+        List<NotificationOutbox> digest = new ArrayList<>();
+        for (NotificationOutbox row : rows) {
+            digest.add(row);
+            if (digest.size() > 1 && whatsAppBody(digest).length() > WHATSAPP_MAX_LENGTH) {
+                digest.remove(digest.size() - 1);
+                digests.add(digest);
+                digest = new ArrayList<>(List.of(row));
+            }
+        }
+        digests.add(digest);
+        return digests;
+    }
+
+    static String subject(List<NotificationOutbox> rows) {
+        return "📬 Eventify digest - " + rows.size() + " notifications";
+    }
+
+    static String body(String channel, List<NotificationOutbox> rows) {
+        if (NotificationDispatcher.WHATSAPP.equals(channel)) {
+            return whatsAppBody(rows);
+        }
+        StringBuilder body = new StringBuilder();
+        body.append("📬 ").append(rows.size()).append(" notifications since the last digest");
+        for (NotificationOutbox row : rows) {
+            body.append(EMAIL_SEPARATOR);
+            if (row.getSubject() != null) {
+                body.append(row.getSubject()).append("\n\n");
+            }
+            body.append(row.getBody().strip());
+        }
+        return body.toString();
+    }
+
+    private static String whatsAppBody(List<NotificationOutbox> rows) {
+        StringBuilder body = new StringBuilder();
+        body.append("📬 *").append(rows.size()).append(" notifications*");
+        for (NotificationOutbox row : rows) {
+            body.append(WHATSAPP_SEPARATOR).append(row.getBody().strip());
+        }
+        return body.toString();
+    }
+}
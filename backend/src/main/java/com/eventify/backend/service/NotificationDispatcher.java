@@ -0,0 +1,108 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.NotificationOutbox;
+import com.eventify.backend.entity.NotificationType;
+import com.eventify.backend.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Entry point for outgoing email and WhatsApp notifications.
+ * Each notification is rendered by the caller and written to the notification_outbox table, inside the caller's
+ * transaction when there is one, so it is stored if and only if the change that triggered it commits.
+ * Delivery happens later on NotificationRelay's threads; callers never wait for SMTP or Twilio.
+ * <p>
+ * Coalescing: a notification whose dedup key matches one that is still queued replaces its content instead of
+ * adding another message. Unless its type is urgent, a notification joins the recipient's open digest window
+ * (notifications.digest.window) and is sent together with everything else queued in that window.
+ */
+@Service
+public class NotificationDispatcher {
+
+    public static final String EMAIL = "email";
+    public static final String WHATSAPP = "whatsapp";
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationRelay notificationRelay;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notifications.digest.window:0s}")
+    private Duration digestWindow;
+
+    @Value("${notifications.digest.urgent-types:EVENT_REQUEST,OFFERING_REQUEST}")
+    private Set<NotificationType> urgentTypes;
+
+    /**
+     * Queues an email. A null dedup key means the notification is never merged with another one.
+     */
+    public void sendEmail(NotificationType type, String dedupKey, String to, String subject, String body) {
+        enqueue(new NotificationOutbox(EMAIL, type, dedupKey, to, subject, body));
+    }
+
+    /**
+     * Queues a WhatsApp message if a phone number is set.
+     */
+    public void sendWhatsApp(NotificationType type, String dedupKey, String toPhoneNumber, String message) {
+        if (toPhoneNumber == null || toPhoneNumber.isEmpty()) {
+            return;
+        }
+        enqueue(new NotificationOutbox(WHATSAPP, type, dedupKey, toPhoneNumber, null, message));
+    }
+
+    private void enqueue(NotificationOutbox notification) {
+        // Subjects embed user text (event titles allow 2000 characters); an oversized one would roll back the caller
+        String subject = notification.getSubject();
+        if (subject != null && subject.length() > NotificationOutbox.SUBJECT_LENGTH) {
+            notification.setSubject(subject.substring(0, NotificationOutbox.SUBJECT_LENGTH - 3) + "...");
+        }
+        if (notification.getDedupKey() != null) {
+            // Keep the queued row and its slot, only refresh what it says; if a relay claims it first, queue anew
+            for (Long queuedId : outboxRepository.findQueuedIds(notification.getDedupKey(), notification.getChannel(), PageRequest.of(0, 1))) {
+                if (outboxRepository.refreshQueued(queuedId, notification.getSubject(), notification.getBody()) > 0) {
+                    meterRegistry.counter("notifications.coalesced", "channel", notification.getChannel()).increment();
+                    return;
+                }
+            }
+        }
+        boolean urgent = notification.getType() == null || urgentTypes.contains(notification.getType());
+        notification.setUrgent(urgent);
+        if (!urgent && !digestWindow.isZero()) {
+            notification.setNextAttemptAt(outboxRepository
+                    .findFirstByChannelAndRecipientAndStatusAndAttemptsAndUrgentFalseOrderByIdAsc(
+                            notification.getChannel(), notification.getRecipient(), NotificationOutbox.PENDING, 0)
+                    .map(NotificationOutbox::getNextAttemptAt)
+                    .orElse(notification.getCreatedAt().plus(digestWindow)));
+        }
+        outboxRepository.save(notification);
+        if (urgent || digestWindow.isZero()) {
+            wakeRelayAfterCommit();
+        }
+    }
+
+    // Wake the relay once the row is visible to it; the periodic poll covers anything missed
+    private void wakeRelayAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notificationRelay.wakeUp();
+                }
+            });
+        } else {
+            notificationRelay.wakeUp();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.NotificationOutbox;
+import com.eventify.backend.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the notification outbox in the background.
+ * Due rows are claimed in batches: each claim bumps the attempt count and pushes next_attempt_at out by a lease,
+ * so a row claimed by a relay that dies is picked up again once the lease runs out (at-least-once delivery).
+ * The batch is sent in parallel on a fixed worker pool; failures are retried with exponential backoff and rows
+ * that still fail after notifications.outbox.max-attempts are marked DEAD with the last error.
+ * Drains run on a single relay thread, triggered after each commit that wrote to the outbox and by a periodic poll.
+ * Non-urgent rows claimed together for one recipient are sent as a digest, one message where the channel allows.
+ * Metrics: notifications.sent{channel,outcome} (success, retry, dead), notifications.send.duration{channel},
+ * notifications.coalesced{channel} and the notifications.queue.size gauge.
+ */
+@Service
+public class NotificationRelay {
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    private final Map<String, NotificationSender> senders = new HashMap<>();
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor relayThread;
+    private final ThreadPoolExecutor workers;
+
+    @Value("${notifications.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notifications.outbox.backoff:30s}")
+    private Duration backoff;
+
+    @Value("${notifications.outbox.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    @Value("${notifications.outbox.lease:5m}")
+    private Duration lease;
+
+    public NotificationRelay(
+            List<NotificationSender> senders,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.dispatch.workers:2}") int workerCount,
+            @Value("${notifications.dispatch.queue-capacity:500}") int queueCapacity
+    ) {
+        // Senders arrive sorted by @Order, so the first one registered for a channel wins
+        for (NotificationSender sender : senders) {
+            this.senders.putIfAbsent(sender.channel(), sender);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        // One drain at a time; a wake-up while a drain is already queued is dropped, since that drain sees the new rows
+        this.relayThread = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                task -> daemon(task, "notify-relay"), new ThreadPoolExecutor.DiscardPolicy());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> daemon(task, "notify-" + threadCount.incrementAndGet()));
+        meterRegistry.gauge("notifications.queue.size", workers.getQueue(), Collection::size);
+    }
+
+    /**
+     * Schedules a drain on the relay thread. Never blocks the caller.
+     */
+    public void wakeUp() {
+        if (!relayThread.isShutdown()) {
+            relayThread.execute(this::drain);
+        }
+    }
+
+    /**
+     * Picks up rows left over from a previous run as well as retries whose backoff has passed.
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval:10s}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        wakeUp();
+    }
+
+    private void drain() {
+        try {
+            List<NotificationOutbox> batch;
+            do {
+                batch = claimBatch();
+                deliver(batch);
+            } while (batch.size() == batchSize && !relayThread.isShutdown());
+        } catch (RuntimeException e) {
+            System.err.println("Notification relay failed: " + e.getMessage());
+        }
+    }
+
+    private List<NotificationOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<NotificationOutbox> rows = outboxRepository.lockDue(now, PageRequest.of(0, batchSize));
+            for (NotificationOutbox row : rows) {
+                row.setAttempts(row.getAttempts() + 1);
+                row.setNextAttemptAt(now.plus(lease));
+            }
+            return rows;
+        });
+    }
+
+    private void deliver(List<NotificationOutbox> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, String> errors = new ConcurrentHashMap<>();
+        List<Future<?>> pending = new ArrayList<>(batch.size());
+        for (List<NotificationOutbox> group : groupDigests(batch)) {
+            try {
+                pending.add(workers.submit(() -> send(group, errors)));
+            } catch (RejectedExecutionException e) {
+                group.forEach(row -> errors.put(row.getId(), "Worker queue full"));
+            }
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // send() records its own failures
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            for (NotificationOutbox claimed : batch) {
+                outboxRepository.findById(claimed.getId()).ifPresent(row -> record(row, errors.get(row.getId()), now));
+            }
+        });
+    }
+
+    /**
+     * Non-urgent rows for the same channel and recipient become one digest, split into several messages where the
+     * channel limits the length; urgent rows are sent on their own.
+     */
+    private Collection<List<NotificationOutbox>> groupDigests(List<NotificationOutbox> batch) {
+        Map<String, List<NotificationOutbox>> groups = new LinkedHashMap<>();
+        for (NotificationOutbox row : batch) {
+            String key = row.isUrgent() ? "urgent:" + row.getId() : row.getChannel() + ":" + row.getRecipient();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        }
+        List<List<NotificationOutbox>> digests = new ArrayList<>();
+        for (List<NotificationOutbox> group : groups.values()) {
+            digests.addAll(NotificationDigest.split(group.get(0).getChannel(), group));
+        }
+        return digests;
+    }
+
+    private void send(List<NotificationOutbox> group, Map<Long, String> errors) {
+        NotificationOutbox first = group.get(0);
+        NotificationSender sender = senders.get(first.getChannel());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (sender == null) {
+                throw new IllegalStateException("No sender for channel " + first.getChannel());
+            }
+            if (group.size() == 1) {
+                sender.send(first.getRecipient(), first.getSubject(), first.getBody());
+            } else {
+                meterRegistry.counter("notifications.coalesced", "channel", first.getChannel()).increment(group.size() - 1);
+                sender.send(first.getRecipient(), NotificationDigest.subject(group), NotificationDigest.body(first.getChannel(), group));
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to send " + first.getChannel() + " notification " + first.getId()
+                    + (group.size() > 1 ? " (digest of " + group.size() + ")" : "") + ": " + e.getMessage());
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            group.forEach(row -> errors.put(row.getId(), error));
+        } finally {
+            sample.stop(meterRegistry.timer("notifications.send.duration", "channel", first.getChannel()));
+        }
+    }
+
+    private void record(NotificationOutbox row, String error, Instant now) {
+        String outcome;
+        if (error == null) {
+            row.setStatus(NotificationOutbox.SENT);
+            row.setSentAt(now);
+            row.setLastError(null);
+            outcome = "success";
+        } else {
+            row.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            if (row.getAttempts() >= maxAttempts) {
+                row.setStatus(NotificationOutbox.DEAD);
+                System.err.println("Giving up on " + row.getChannel() + " notification " + row.getId() + " after " + row.getAttempts() + " attempts");
+                outcome = "dead";
+            } else {
+                row.setNextAttemptAt(now.plus(backoffFor(row.getAttempts())));
+                outcome = "retry";
+            }
+        }
+        meterRegistry.counter("notifications.sent", "channel", row.getChannel(), "outcome", outcome).increment();
+    }
+
+    // backoff, 2x backoff, 4x backoff, ... capped at max-backoff
+    private Duration backoffFor(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayThread.shutdown();
+        workers.shutdown();
+        try {
+            // Unsent rows stay in the outbox and are picked up again after restart
+            relayThread.awaitTermination(10, TimeUnit.SECONDS);
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        relayThread.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.eventify.backend.service;
+
+/**
+ * A delivery channel for outbox notifications (email, WhatsApp).
+ * Implementations throw on failure so the relay can retry. When several senders handle the same channel the one
+ * with the highest @Order precedence wins, which lets tests plug in in-process fakes.
+ */
+public interface NotificationSender {
+
+    String channel();
+
+    void send(String recipient, String subject, String body) throws Exception;
+}
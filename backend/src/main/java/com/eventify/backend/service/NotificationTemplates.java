@@ -0,0 +1,185 @@
+package com.eventify.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message templates for admin notifications, with {{key}} placeholders.
+ * Each template is parsed once into literal and placeholder segments, so rendering is a single append pass
+ * instead of re-scanning a format string on every message.
+ * <p>
+ * Built-in templates live in classpath:notifications/&lt;name&gt;.txt. A template can be replaced without a rebuild
+ * by setting notifications.template.&lt;name&gt; or by dropping &lt;name&gt;.txt into notifications.templates.dir;
+ * that directory is re-checked every notifications.templates.reload-interval.
+ */
+@Service
+public class NotificationTemplates {
+
+    static final String[] NAMES = {
+            "event-created.email", "event-created.whatsapp",
+            "event-updated.email", "event-updated.whatsapp",
+            "event-feedback.email", "event-feedback.whatsapp",
+            "event-featured.email", "event-featured.whatsapp",
+            "event-custom.email", "event-custom.whatsapp",
+            "event-request.email", "event-request.whatsapp",
+            "offering-request.email", "offering-request.whatsapp"
+    };
+
+    // Builders that grew past this are dropped rather than pinned to the thread
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${notifications.templates.dir:}")
+    private String templatesDir;
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final Map<String, Long> fileVersions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        for (String name : NAMES) {
+            templates.put(name, Template.parse(name, builtIn(name)));
+        }
+        for (String name : NAMES) {
+            String override = environment.getProperty("notifications.template." + name);
+            if (override != null) {
+                templates.put(name, Template.parse(name, override));
+            }
+        }
+        reloadFiles();
+    }
+
+    /**
+     * Picks up templates added or edited in notifications.templates.dir since the last check.
+     */
+    @Scheduled(fixedDelayString = "${notifications.templates.reload-interval:30s}")
+    public void reloadFiles() {
+        if (templatesDir == null || templatesDir.isBlank()) {
+            return;
+        }
+        for (String name : NAMES) {
+            Path file = Path.of(templatesDir, name + ".txt");
+            try {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                if (!Objects.equals(fileVersions.get(name), modified)) {
+                    templates.put(name, Template.parse(name, stripTrailingNewline(Files.readString(file))));
+                    fileVersions.put(name, modified);
+                    System.out.println("Loaded notification template " + name + " from " + file);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Keep whatever version was in use before
+                System.err.println("Failed to load notification template " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Renders a template with alternating key / value arguments. Null values render as "null", as String.format did.
+     */
+    public String render(String name, Object... keyValues) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown notification template: " + name);
+        }
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        template.renderTo(out, keyValues);
+        String result = out.toString();
+        if (out.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    private static String builtIn(String name) {
+        try (InputStream in = new ClassPathResource("notifications/" + name + ".txt").getInputStream()) {
+            return stripTrailingNewline(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Missing built-in notification template " + name, e);
+        }
+    }
+
+    // Files end with a newline; the rendered text shouldn't get an extra one from it
+    private static String stripTrailingNewline(String text) {
+        if (text.endsWith("\r\n")) {
+            return text.substring(0, text.length() - 2);
+        }
+        return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    /**
+     * A parsed template: literals[i] is followed by the value of keys[i]; the last literal has no key after it.
+     */
+    static final class Template {
+
+        private final String[] literals;
+        private final String[] keys;
+
+        private Template(String[] literals, String[] keys) {
+            this.literals = literals;
+            this.keys = keys;
+        }
+
+        static Template parse(String name, String text) {
+            List<String> literals = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            int pos = 0;
+            while (true) {
+                int open = text.indexOf("{{", pos);
+                int close = open < 0 ? -1 : text.indexOf("}}", open + 2);
+                if (close < 0) {
+                    literals.add(text.substring(pos));
+                    break;
+                }
+                String key = text.substring(open + 2, close).strip();
+                if (key.isEmpty()) {
+                    throw new IllegalArgumentException("Empty placeholder in notification template " + name);
+                }
+                literals.add(text.substring(pos, open));
+                keys.add(key);
+                pos = close + 2;
+            }
+            return new Template(literals.toArray(new String[0]), keys.toArray(new String[0]));
+        }
+
+        void renderTo(StringBuilder out, Object[] keyValues) {
+            for (int i = 0; i < keys.length; i++) {
+                out.append(literals[i]);
+                out.append(lookup(keys[i], keyValues));
+            }
+            out.append(literals[keys.length]);
+        }
+
+        // Templates have a handful of keys, so a linear scan beats building a map per render
+        private static Object lookup(String key, Object[] keyValues) {
+            for (int i = 0; i + 1 < keyValues.length; i += 2) {
+                if (key.equals(keyValues[i])) {
+                    return keyValues[i + 1];
+                }
+            }
+            // Unknown keys are left visible so a typo in an override is easy to spot
+            return "{{" + key + "}}";
+        }
+    }
+}
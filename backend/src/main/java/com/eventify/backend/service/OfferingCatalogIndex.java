@@ -0,0 +1,583 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.Category;
+import com.eventify.backend.entity.EventOffering;
+import com.eventify.backend.pojo.CatalogVersion;
+import com.eventify.backend.pojo.CategoryWithCount;
+import com.eventify.backend.repository.EventOfferingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory read model of the offering catalogue behind the public offering list endpoints, so listing, search,
+ * filters, sorting and category counts are answered without a database query.
+ * Offerings are numbered in id order (their ordinal). Categories, main categories and search tokens map to BitSets
+ * or ordinal arrays over those numbers, every sort order the API offers is precomputed, and price ranges are
+ * binary searches over the array of effective prices (see PricingService), the prices customers see.
+ * Text search: title, description and inclusions are split into lower-cased, accent-folded tokens (stop words
+ * dropped); each token lists the offerings containing it with a weight (occurrences, title counting 3x). Every query
+ * token must match (AND) and matches any indexed token it is a prefix of; results are ranked by TF-IDF, with exact
+ * token matches ahead of prefix matches.
+ * Offering writes re-read and re-tokenize only the changed offering (refresh / remove) and adjust the per-category
+ * offering counts by its old and new categories. The lookup structures are then reassembled from the indexed
+ * entries, so a write still costs O(catalogue) in memory even though only the one offering is read from the
+ * database; catalogues are immutable so that reads never see a half-applied write.
+ * Each catalogue remembers the version it reflects. A read that brings a different one, e.g. after a write on another
+ * instance or any category change, reloads every offering from the database (rebuildAll).
+ */
+@Service
+public class OfferingCatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferingCatalogIndex.class);
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float TEXT_WEIGHT = 1f;
+    private static final double PREFIX_FACTOR = 0.75;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "by", "for", "from", "in", "is", "of", "on", "or", "the", "to", "with");
+
+    // Sort fields of GET /api/offerings/sorted
+    private static final String PRICE = "effectivePrice";
+    private static final Map<String, Function<EventOffering, Comparable<?>>> SORT_KEYS = Map.of(
+            "title", o -> o.getTitle() != null ? o.getTitle().toLowerCase(Locale.ROOT) : "",
+            "approximatePrice", o -> o.getApproximatePrice() != null ? o.getApproximatePrice() : 0.0,
+            PRICE, OfferingCatalogIndex::effectivePrice,
+            "mainCategory", o -> o.getMainCategory() != null ? o.getMainCategory().getName().toLowerCase(Locale.ROOT) : "",
+            "category", o -> o.getCategories() != null && !o.getCategories().isEmpty()
+                    ? o.getCategories().get(0).getName().toLowerCase(Locale.ROOT) : "",
+            "id", EventOffering::getId);
+
+    @Autowired
+    private EventOfferingRepository eventOfferingRepository;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Value("${offerings.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${offerings.page.max-size:100}")
+    private int maxPageSize;
+
+    private final TransactionTemplate readOnlyTx;
+
+    // Indexed offerings by id; only touched while holding the monitor
+    private final TreeMap<Long, Entry> entries = new TreeMap<>();
+
+    // Offerings per category id (as main or listed category), adjusted with every change to entries
+    private final Map<Long, Integer> offeringsPerCategory = new HashMap<>();
+
+    private volatile Catalog current;
+
+    public OfferingCatalogIndex(PlatformTransactionManager transactionManager) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * The catalogue as of catalogVersion (CatalogVersionService.offerings()), rebuilt first if the index is older.
+     */
+    public Catalog current(CatalogVersion catalogVersion) {
+        Catalog catalog = current;
+        if (catalog != null && catalog.version.equals(catalogVersion.getEtag())) {
+            return catalog;
+        }
+        synchronized (this) {
+            if (current == null || !current.version.equals(catalogVersion.getEtag())) {
+                rebuildAll(catalogVersion.getEtag());
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Page of a result list for the page / size query params (size capped at offerings.page.max-size);
+     * unpaged if both are missing.
+     */
+    public Pageable pageable(Integer page, Integer size) {
+        if (page == null && size == null) {
+            return Pageable.unpaged();
+        }
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        return PageRequest.of(page != null && page >= 0 ? page : 0, pageSize);
+    }
+
+    /**
+     * Re-indexes one offering after it was created or updated, then reassembles the catalogue (O(catalogue)).
+     * Does nothing until the index has been built.
+     */
+    public synchronized void refresh(Long offeringId) {
+        if (current == null) {
+            return;
+        }
+        readOnlyTx.executeWithoutResult(status -> eventOfferingRepository.findByIdWithCategories(offeringId).ifPresentOrElse(
+                this::put,
+                () -> drop(offeringId)));
+        current = assemble(catalogVersionService.offerings().getEtag());
+    }
+
+    /**
+     * Drops a deleted offering from the index, then reassembles the catalogue (O(catalogue)).
+     */
+    public synchronized void remove(Long offeringId) {
+        if (current == null) {
+            return;
+        }
+        drop(offeringId);
+        current = assemble(catalogVersionService.offerings().getEtag());
+    }
+
+    // Reloads and re-tokenizes every offering: one query, O(catalogue)
+    private void rebuildAll(String catalogVersion) {
+        long start = System.nanoTime();
+        readOnlyTx.executeWithoutResult(status -> {
+            entries.clear();
+            offeringsPerCategory.clear();
+            for (EventOffering offering : eventOfferingRepository.findAllWithCategories()) {
+                put(offering);
+            }
+        });
+        current = assemble(catalogVersion);
+        logger.info("Built offering catalogue index: {} offerings, {} terms in {}ms",
+                entries.size(), current.terms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void put(EventOffering offering) {
+        Entry entry = new Entry(offering, weigh(offering), categoryIds(offering));
+        count(entries.put(offering.getId(), entry), -1);
+        count(entry, 1);
+    }
+
+    private void drop(Long offeringId) {
+        count(entries.remove(offeringId), -1);
+    }
+
+    private void count(Entry entry, int delta) {
+        if (entry == null) {
+            return;
+        }
+        for (Long categoryId : entry.categoryIds()) {
+            offeringsPerCategory.merge(categoryId, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private static Set<Long> categoryIds(EventOffering offering) {
+        Set<Long> ids = new HashSet<>();
+        if (offering.getMainCategory() != null) {
+            ids.add(offering.getMainCategory().getId());
+        }
+        if (offering.getCategories() != null) {
+            for (Category category : offering.getCategories()) {
+                ids.add(category.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static Map<String, Float> weigh(EventOffering offering) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String token : tokenize(offering.getTitle())) {
+            weights.merge(token, TITLE_WEIGHT, Float::sum);
+        }
+        for (String text : new String[]{offering.getDescription(), offering.getInclusions()}) {
+            for (String token : tokenize(text)) {
+                weights.merge(token, TEXT_WEIGHT, Float::sum);
+            }
+        }
+        return weights;
+    }
+
+    private Catalog assemble(String catalogVersion) {
+        int size = entries.size();
+        EventOffering[] offerings = new EventOffering[size];
+        Map<String, PostingBuilder> postings = new HashMap<>();
+        Map<Long, Category> categories = new HashMap<>();
+        Map<Long, BitSet> byCategory = new HashMap<>();
+        Map<Long, BitSet> byMainCategory = new HashMap<>();
+
+        int ordinal = 0;
+        for (Entry entry : entries.values()) {
+            EventOffering offering = entry.offering();
+            offerings[ordinal] = offering;
+            for (Map.Entry<String, Float> term : entry.weights().entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new PostingBuilder()).add(ordinal, term.getValue());
+            }
+            Category main = offering.getMainCategory();
+            if (main != null) {
+                categories.putIfAbsent(main.getId(), main);
+                byCategory.computeIfAbsent(main.getId(), k -> new BitSet(size)).set(ordinal);
+                byMainCategory.computeIfAbsent(main.getId(), k -> new BitSet(size)).set(ordinal);
+            }
+            if (offering.getCategories() != null) {
+                for (Category category : offering.getCategories()) {
+                    categories.putIfAbsent(category.getId(), category);
+                    byCategory.computeIfAbsent(category.getId(), k -> new BitSet(size)).set(ordinal);
+                }
+            }
+            ordinal++;
+        }
+
+        TreeMap<String, Posting> terms = new TreeMap<>();
+        postings.forEach((term, builder) -> terms.put(term, builder.build()));
+
+        Map<String, BitSet> byCategoryName = new HashMap<>();
+        byCategory.forEach((id, bits) -> byCategoryName.merge(categories.get(id).getName().toLowerCase(Locale.ROOT), bits, (a, b) -> {
+            BitSet merged = (BitSet) a.clone();
+            merged.or(b);
+            return merged;
+        }));
+
+        List<CategoryWithCount> categoryCounts = new ArrayList<>(offeringsPerCategory.size());
+        offeringsPerCategory.forEach((id, count) -> {
+            Category category = categories.get(id);
+            categoryCounts.add(new CategoryWithCount(id, category.getName(), category.getEmoji(), (long) count));
+        });
+        categoryCounts.sort(Comparator.comparing(CategoryWithCount::getOfferingCount).reversed()
+                .thenComparing(CategoryWithCount::getName));
+
+        Map<String, BitSet> byMainCategoryName = new HashMap<>();
+        List<CategoryGroup> mainCategoryGroups = new ArrayList<>();
+        byMainCategory.forEach((id, bits) -> {
+            Category category = categories.get(id);
+            byMainCategoryName.put(category.getName(), bits);
+            mainCategoryGroups.add(new CategoryGroup(category, Catalog.select(offerings, bits)));
+        });
+        mainCategoryGroups.sort(Comparator.comparingInt((CategoryGroup g) -> g.offerings().size()).reversed()
+                .thenComparing(g -> g.category().getId()));
+
+        Map<String, Ordering> orderings = new HashMap<>();
+        SORT_KEYS.forEach((field, key) -> orderings.put(field, Ordering.of(offerings, key)));
+        Ordering byPrice = orderings.get(PRICE);
+        double[] sortedPrices = new double[size];
+        for (int i = 0; i < size; i++) {
+            sortedPrices[i] = effectivePrice(offerings[byPrice.order()[i]]);
+        }
+
+        return new Catalog(catalogVersion, offerings, terms, byCategoryName, byMainCategoryName,
+                List.copyOf(categoryCounts), List.copyOf(mainCategoryGroups), orderings, sortedPrices);
+    }
+
+    // Offerings not yet repriced by PricingService fall back to their approximate price
+    private static double effectivePrice(EventOffering offering) {
+        Double price = offering.getEffectivePrice() != null ? offering.getEffectivePrice() : offering.getApproximatePrice();
+        return price != null ? price : 0.0;
+    }
+
+    /**
+     * Lower-cased, accent-folded words of text, without stop words.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Entry(EventOffering offering, Map<String, Float> weights, Set<Long> categoryIds) {
+    }
+
+    private record Posting(int[] ordinals, float[] weights) {
+    }
+
+    private static final class PostingBuilder {
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size++] = weight;
+        }
+
+        Posting build() {
+            return new Posting(Arrays.copyOf(ordinals, size), Arrays.copyOf(weights, size));
+        }
+    }
+
+    /**
+     * One sort order: ordinals from first to last, and each ordinal's rank (equal for offerings that compare equal).
+     */
+    private record Ordering(int[] order, int[] rank) {
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static Ordering of(EventOffering[] offerings, Function<EventOffering, Comparable<?>> key) {
+            Comparable[] keys = new Comparable[offerings.length];
+            Integer[] sorted = new Integer[offerings.length];
+            for (int i = 0; i < offerings.length; i++) {
+                keys[i] = key.apply(offerings[i]);
+                sorted[i] = i;
+            }
+            // Stable, so offerings with equal keys stay in id order
+            Arrays.sort(sorted, (a, b) -> keys[a].compareTo(keys[b]));
+            int[] order = new int[sorted.length];
+            int[] rank = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                order[i] = sorted[i];
+                rank[order[i]] = i > 0 && keys[order[i - 1]].compareTo(keys[order[i]]) == 0 ? rank[order[i - 1]] : i;
+            }
+            return new Ordering(order, rank);
+        }
+    }
+
+    /**
+     * Offerings whose main category is category, in id order.
+     */
+    public record CategoryGroup(Category category, List<EventOffering> offerings) {
+    }
+
+    /**
+     * An immutable catalogue version; a read works on whichever version was current when it started.
+     * Returned lists must not be modified.
+     */
+    public static final class Catalog {
+        private final String version;
+        private final EventOffering[] offerings;
+        private final List<EventOffering> all;
+        private final NavigableMap<String, Posting> terms;
+        private final Map<String, BitSet> byCategoryName;
+        private final Map<String, BitSet> byMainCategoryName;
+        private final List<CategoryWithCount> categoryCounts;
+        private final List<CategoryGroup> mainCategoryGroups;
+        private final Map<String, Ordering> orderings;
+        private final double[] sortedPrices;
+
+        private Catalog(String version, EventOffering[] offerings, NavigableMap<String, Posting> terms,
+                        Map<String, BitSet> byCategoryName, Map<String, BitSet> byMainCategoryName,
+                        List<CategoryWithCount> categoryCounts, List<CategoryGroup> mainCategoryGroups,
+                        Map<String, Ordering> orderings, double[] sortedPrices) {
+            this.version = version;
+            this.offerings = offerings;
+            this.all = List.of(offerings);
+            this.terms = terms;
+            this.byCategoryName = byCategoryName;
+            this.byMainCategoryName = byMainCategoryName;
+            this.categoryCounts = categoryCounts;
+            this.mainCategoryGroups = mainCategoryGroups;
+            this.orderings = orderings;
+            this.sortedPrices = sortedPrices;
+        }
+
+        /**
+         * All offerings in id order.
+         */
+        public List<EventOffering> all() {
+            return all;
+        }
+
+        /**
+         * All offerings ordered by field (title, approximatePrice, effectivePrice, mainCategory, category, id);
+         * ties and unknown fields keep id order.
+         */
+        public List<EventOffering> sorted(String field, boolean descending) {
+            Ordering ordering = orderings.get(field);
+            if (ordering == null) {
+                return all;
+            }
+            return offeringsAt(inOrder(ordering, descending, null));
+        }
+
+        /**
+         * Offerings whose main category has exactly this name, in id order.
+         */
+        public List<EventOffering> byMainCategory(String name) {
+            BitSet bits = byMainCategoryName.get(name);
+            return bits != null ? select(offerings, bits) : List.of();
+        }
+
+        /**
+         * Categories used by at least one offering (as main or listed category), most used first.
+         */
+        public List<CategoryWithCount> categoryCounts() {
+            return categoryCounts;
+        }
+
+        /**
+         * Offerings grouped by main category, largest group first.
+         */
+        public List<CategoryGroup> mainCategoryGroups() {
+            return mainCategoryGroups;
+        }
+
+        /**
+         * Offerings matching all words of query (all offerings if it has none), in category (main or listed, any
+         * case; blank or "undefined" for any) and with an effective price within [minPrice, maxPrice] (either may
+         * be null). sort "low" / "high" orders by effective price, otherwise matches come most relevant first, or in id order without
+         * a query. Only the requested page of offerings is collected; the total counts all matches.
+         */
+        public Page<EventOffering> search(String query, String category, Double minPrice, Double maxPrice, String sort,
+                                          Pageable pageable) {
+            BitSet filter = filter(category, minPrice, maxPrice);
+            List<String> tokens = tokenize(query).stream().distinct().toList();
+            boolean byPrice = "low".equals(sort) || "high".equals(sort);
+            List<Integer> matches;
+            if (tokens.isEmpty()) {
+                matches = inOrder(orderings.get(byPrice ? PRICE : "id"), "high".equals(sort), filter);
+            } else {
+                matches = rank(tokens, filter);
+                if (byPrice) {
+                    // Stable, so equally priced offerings keep their relevance order
+                    int[] priceRank = orderings.get(PRICE).rank();
+                    Comparator<Integer> cheapestFirst = Comparator.comparingInt(o -> priceRank[o]);
+                    matches.sort("high".equals(sort) ? cheapestFirst.reversed() : cheapestFirst);
+                }
+            }
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(offeringsAt(matches), pageable, matches.size());
+            }
+            int from = (int) Math.min(pageable.getOffset(), matches.size());
+            int to = Math.min(from + pageable.getPageSize(), matches.size());
+            return new PageImpl<>(offeringsAt(matches.subList(from, to)), pageable, matches.size());
+        }
+
+        // Offerings passing the category and price filters, or null if neither is set
+        private BitSet filter(String category, Double minPrice, Double maxPrice) {
+            BitSet filter = null;
+            if (category != null && !category.isBlank() && !category.equals("undefined")) {
+                BitSet inCategory = byCategoryName.get(category.toLowerCase(Locale.ROOT));
+                filter = inCategory != null ? (BitSet) inCategory.clone() : new BitSet();
+            }
+            if (minPrice != null || maxPrice != null) {
+                int[] byPrice = orderings.get(PRICE).order();
+                int from = minPrice != null ? firstAbove(minPrice, false) : 0;
+                int to = maxPrice != null ? firstAbove(maxPrice, true) : byPrice.length;
+                BitSet inRange = new BitSet(offerings.length);
+                for (int i = from; i < to; i++) {
+                    inRange.set(byPrice[i]);
+                }
+                if (filter == null) {
+                    filter = inRange;
+                } else {
+                    filter.and(inRange);
+                }
+            }
+            return filter;
+        }
+
+        // First index in sortedPrices with a price above (or, if not inclusive, at least) price
+        private int firstAbove(double price, boolean inclusive) {
+            int low = 0;
+            int high = sortedPrices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedPrices[mid] < price || (inclusive && sortedPrices[mid] == price)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private List<Integer> rank(List<String> tokens, BitSet filter) {
+            double[] scores = new double[offerings.length];
+            BitSet matched = null;
+            for (String token : tokens) {
+                double[] tokenScores = new double[offerings.length];
+                BitSet tokenMatched = new BitSet(offerings.length);
+                for (Map.Entry<String, Posting> term : terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                    Posting posting = term.getValue();
+                    double idf = Math.log(1 + (double) offerings.length / posting.ordinals().length);
+                    double factor = term.getKey().length() == token.length() ? 1 : PREFIX_FACTOR;
+                    for (int i = 0; i < posting.ordinals().length; i++) {
+                        int ordinal = posting.ordinals()[i];
+                        // A word matching several indexed tokens (e.g. "ball" in "ball" and "balloons") counts once
+                        tokenScores[ordinal] = Math.max(tokenScores[ordinal], idf * (1 + Math.log(posting.weights()[i])) * factor);
+                        tokenMatched.set(ordinal);
+                    }
+                }
+                if (matched == null) {
+                    matched = filter != null ? filter : new BitSet(offerings.length);
+                    if (filter == null) {
+                        matched.set(0, offerings.length);
+                    }
+                }
+                matched.and(tokenMatched);
+                for (int o = matched.nextSetBit(0); o >= 0; o = matched.nextSetBit(o + 1)) {
+                    scores[o] += tokenScores[o];
+                }
+                if (matched.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+            List<Integer> ranked = new ArrayList<>(matched.cardinality());
+            for (int o = matched.nextSetBit(0); o >= 0; o = matched.nextSetBit(o + 1)) {
+                ranked.add(o);
+            }
+            ranked.sort(Comparator.comparingDouble((Integer o) -> scores[o]).reversed().thenComparingInt(o -> o));
+            return ranked;
+        }
+
+        // Ordinals in ordering (only those in include, if given), keeping id order among equal ones even when descending
+        private List<Integer> inOrder(Ordering ordering, boolean descending, BitSet include) {
+            int[] order = ordering.order();
+            int[] rank = ordering.rank();
+            List<Integer> result = new ArrayList<>(include != null ? include.cardinality() : order.length);
+            if (!descending) {
+                for (int ordinal : order) {
+                    if (include == null || include.get(ordinal)) {
+                        result.add(ordinal);
+                    }
+                }
+                return result;
+            }
+            int end = order.length;
+            while (end > 0) {
+                int start = end - 1;
+                while (start > 0 && rank[order[start - 1]] == rank[order[end - 1]]) {
+                    start--;
+                }
+                for (int i = start; i < end; i++) {
+                    if (include == null || include.get(order[i])) {
+                        result.add(order[i]);
+                    }
+                }
+                end = start;
+            }
+            return result;
+        }
+
+        private List<EventOffering> offeringsAt(List<Integer> ordinals) {
+            List<EventOffering> result = new ArrayList<>(ordinals.size());
+            for (int ordinal : ordinals) {
+                result.add(offerings[ordinal]);
+            }
+            return result;
+        }
+
+        private static List<EventOffering> select(EventOffering[] offerings, BitSet bits) {
+            List<EventOffering> result = new ArrayList<>(bits.cardinality());
+            for (int o = bits.nextSetBit(0); o >= 0; o = bits.nextSetBit(o + 1)) {
+                result.add(offerings[o]);
+            }
+            return result;
+        }
+    }
+}
@@ -3,14 +3,14 @@ package com.eventify.backend.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.eventify.backend.entity.OfferingRequest;
+import com.eventify.backend.entity.NotificationType;
 import com.eventify.backend.entity.EventOffering;
-import com.eventify.backend.entity.GlobalSetting;
 import com.eventify.backend.repository.OfferingRequestRepository;
 import com.eventify.backend.repository.EventOfferingRepository;
-import com.eventify.backend.repository.GlobalSettingRepository;
+import com.eventify.backend.pojo.OfferingSnapshot;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.Map;
@@ -26,39 +26,29 @@ public class OfferingRequestService {
     private EventOfferingRepository offeringRepository;
     
     @Autowired
-    private EmailService emailService;
-    
-    @Autowired
-    private WhatsAppService whatsAppService;
+    private NotificationDispatcher notificationDispatcher;
 
     @Autowired
-    private GlobalSettingRepository globalSettingRepository;
-    
+    private NotificationTemplates templates;
+
     @Value("${admin.email:admin@example.com}")
     private String adminEmail;
     
     @Value("${admin.phone:}")
     private String adminPhone;
 
+    // The request and its notifications are stored in one transaction
+    @Transactional
     public OfferingRequest processOfferingRequest(Map<String, Object> requestData) {
         // Save to database first - this is the primary operation
         OfferingRequest request = convertToEntity(requestData);
         OfferingRequest savedRequest = offeringRequestRepository.save(request);
         
-        // Send notifications asynchronously - don't let failures affect user experience
-        try {
-            sendEmailNotification(savedRequest);
-        } catch (Exception e) {
-            System.err.println("Failed to send email notification: " + e.getMessage());
-            // Continue execution - don't fail the request
-        }
-        
-        try {
-            sendWhatsAppNotification(savedRequest);
-        } catch (Exception e) {
-            System.err.println("Failed to send WhatsApp notification: " + e.getMessage());
-            // Continue execution - don't fail the request
-        }
+        // Queue notifications in the outbox - they are delivered in the background after commit.
+        // The offering is loaded once and shared by both messages.
+        OfferingSnapshot offering = loadOffering(savedRequest.getOfferingId());
+        sendEmailNotification(savedRequest, offering);
+        sendWhatsAppNotification(savedRequest, offering);
         
         return savedRequest;
     }
@@ -89,154 +79,102 @@ public class OfferingRequestService {
         return request;
     }
     
-    private void sendEmailNotification(OfferingRequest request) {
+    private void sendEmailNotification(OfferingRequest request, OfferingSnapshot offering) {
         String subject = "🎁 New Offering Request - " + (request.getOfferingTitle() != null ? request.getOfferingTitle() : "Service Request");
-        String body = buildEmailContent(request);
-        emailService.sendEmail(adminEmail, subject, body);
+        notificationDispatcher.sendEmail(NotificationType.OFFERING_REQUEST, null, adminEmail, subject, buildEmailContent(request, offering));
     }
     
-    private void sendWhatsAppNotification(OfferingRequest request) {
-        if (adminPhone != null && !adminPhone.isEmpty()) {
-            String message = buildWhatsAppMessage(request);
-            whatsAppService.sendMessage(adminPhone, message);
-        }
+    private void sendWhatsAppNotification(OfferingRequest request, OfferingSnapshot offering) {
+        notificationDispatcher.sendWhatsApp(NotificationType.OFFERING_REQUEST, null, adminPhone, buildWhatsAppMessage(request, offering));
     }
-      private String getOfferingDetails(Long offeringId) {
+    /**
+     * Loads the offering with its effective price. Returns null without an offering id.
+     */
+    private OfferingSnapshot loadOffering(Long offeringId) {
         if (offeringId == null) {
-            return "🌟 Service: Service Request\n🆔 Offering ID: Not specified";
+            return null;
         }
-        
-        Optional<EventOffering> offeringOpt;
         try {
-            offeringOpt = offeringRepository.findById(offeringId);
+            Optional<EventOffering> offeringOpt = offeringRepository.findById(offeringId);
             if (offeringOpt.isEmpty()) {
                 System.err.println("WARNING: Offering with ID " + offeringId + " not found in database");
-                return "🌟 Service: Service Request\n🆔 Offering ID: " + offeringId + " (Offering no longer available)";
+                return OfferingSnapshot.unavailable(offeringId, "Offering no longer available");
             }
+            return OfferingSnapshot.of(offeringOpt.get());
         } catch (Exception e) {
             System.err.println("ERROR: Failed to fetch offering with ID " + offeringId + ": " + e.getMessage());
-            return "🌟 Service: Service Request\n🆔 Offering ID: " + offeringId + " (Database error)";
+            return OfferingSnapshot.unavailable(offeringId, "Database error");
         }
-        
-        EventOffering offering = offeringOpt.get();
+    }
+
+    private String getOfferingDetails(OfferingSnapshot offering) {
+        if (offering == null) {
+            return "🌟 Service: Service Request\n🆔 Offering ID: Not specified";
+        }
+        if (!offering.isAvailable()) {
+            return "🌟 Service: Service Request\n🆔 Offering ID: " + offering.id() + " (" + offering.unavailableReason() + ")";
+        }
+
         StringBuilder details = new StringBuilder();
         
-        details.append("🌟 Service: ").append(offering.getTitle() != null ? offering.getTitle() : "Unknown Service").append("\n");
-        details.append("🆔 Offering ID: ").append(offeringId).append("\n");
+        details.append("🌟 Service: ").append(offering.title() != null ? offering.title() : "Unknown Service").append("\n");
+        details.append("🆔 Offering ID: ").append(offering.id()).append("\n");
 
-        if(offering.getDiscountType() != null && !offering.getDiscountType().isEmpty()) {
-            details.append("💸 Discount Type: ").append(offering.getDiscountType()).append("\n");
-            if (offering.getDiscountType().equals("GLOBAL")) {
-                GlobalSetting globalSetting = globalSettingRepository.findByKey("global_discount").orElse(null);
-                if (globalSetting != null && globalSetting.getValue() != null) {
-                    BigDecimal discount = new BigDecimal(globalSetting.getValue());
-                    Double price = offering.getApproximatePrice();
-                    if (price != null) {
-                        price = price - (price * discount.doubleValue() / 100);
-                        details.append("💰 price: ").append(price).append(" (discounted)\n");
-                    }
-                } 
-            } else if (offering.getDiscountType().equals("SPECIAL")) {
-                details.append("💰 Price: ").append(offering.getSpecificDiscountedPrice()).append(" (special rate)\n");
-            }
+        if(offering.discountType() != null && !offering.discountType().isEmpty()) {
+            details.append("💸 Discount Type: ").append(offering.discountType()).append("\n");
+        }
+        if (offering.effectivePrice() != null) {
+            details.append("💰 Price: ").append(offering.effectivePrice()).append(priceNote(offering)).append("\n");
         }
         
         return details.toString().trim();
-    }    private String getOfferingDetailsForWhatsApp(Long offeringId) {
-        if (offeringId == null) {
+    }
+
+    private String getOfferingDetailsForWhatsApp(OfferingSnapshot offering) {
+        if (offering == null) {
             return "🌟 *Service:* Service Request\n🆔 *ID:* Not specified";
         }
-        
-        Optional<EventOffering> offeringOpt;
-        try {
-            offeringOpt = offeringRepository.findById(offeringId);
-            if (offeringOpt.isEmpty()) {
-                System.err.println("WARNING: Offering with ID " + offeringId + " not found in database");
-                return "🌟 *Service:* Service Request\n🆔 *ID:* " + offeringId + " (Offering no longer available)";
-            }
-        } catch (Exception e) {
-            System.err.println("ERROR: Failed to fetch offering with ID " + offeringId + ": " + e.getMessage());
-            return "🌟 *Service:* Service Request\n🆔 *ID:* " + offeringId + " (Database error)";
+        if (!offering.isAvailable()) {
+            return "🌟 *Service:* Service Request\n🆔 *ID:* " + offering.id() + " (" + offering.unavailableReason() + ")";
         }
 
-        EventOffering offering = offeringOpt.get();
         StringBuilder details = new StringBuilder();
         
-        details.append("🌟 *Service:* ").append(offering.getTitle() != null ? offering.getTitle() : "Unknown Service").append("\n");
-        details.append("🆔 *ID:* ").append(offeringId).append("\n");
+        details.append("🌟 *Service:* ").append(offering.title() != null ? offering.title() : "Unknown Service").append("\n");
+        details.append("🆔 *ID:* ").append(offering.id()).append("\n");
 
-        
-        
-        if (offering.getApproximatePrice() != null) {
-            Double price = offering.getApproximatePrice();
-            // get global discount
-            GlobalSetting globalSetting = globalSettingRepository.findByKey("global_discount").orElse(null);
-            if (globalSetting != null && globalSetting.getValue() != null) {
-                BigDecimal discount = new BigDecimal(globalSetting.getValue());
-                price = price - (price * discount.doubleValue() / 100);
-                details.append("💰 *Price:* INR").append(price).append(" (discounted)").append("\n");
-            }else {
-                details.append("💰 *Price:* INR").append(price).append("\n");
-            }
+        if (offering.effectivePrice() != null) {
+            details.append("💰 *Price:* INR").append(offering.effectivePrice()).append(priceNote(offering)).append("\n");
         }
         
         return details.toString().trim();
     }
+
+    private static String priceNote(OfferingSnapshot offering) {
+        if (!offering.isDiscounted()) {
+            return "";
+        }
+        return "SPECIAL".equalsIgnoreCase(offering.discountType()) ? " (special rate)" : " (discounted)";
+    }
     
-    private String buildEmailContent(OfferingRequest request) {
-        return String.format("""
-            🎁 NEW OFFERING REQUEST RECEIVED
-            
-            ═══════════════════════════════════════
-            CLIENT INFORMATION
-            ═══════════════════════════════════════
-            👤 Name: %s
-            📧 Contact: %s
-            
-            ═══════════════════════════════════════
-            OFFERING DETAILS
-            ═══════════════════════════════════════
-            %s
-            📅 Request Date: %s
-            
-            ═══════════════════════════════════════
-            CLIENT MESSAGE
-            ═══════════════════════════════════════
-            💬 %s
-            
-            ═══════════════════════════════════════
-            NEXT STEPS
-            ═══════════════════════════════════════
-            ✅ Review the request details above
-            ✅ Contact the client within 24 hours
-            ✅ Prepare a customized quote
-            ✅ Schedule a consultation if needed
-            
-            Best regards,
-            Eventify System
-            """, 
-            request.getName() != null ? request.getName() : "Not provided",
-            request.getContact() != null ? request.getContact() : "Not provided",
-            getOfferingDetails(request.getOfferingId()),
-            request.getRequestDate() != null ? request.getRequestDate().toString() : "Not specified",
-            request.getMessage() != null ? request.getMessage() : "No additional message provided."
+    private String buildEmailContent(OfferingRequest request, OfferingSnapshot offering) {
+        return templates.render("offering-request.email",
+            "name", request.getName() != null ? request.getName() : "Not provided",
+            "contact", request.getContact() != null ? request.getContact() : "Not provided",
+            "offeringDetails", getOfferingDetails(offering),
+            "requestDate", request.getRequestDate() != null ? request.getRequestDate().toString() : "Not specified",
+            "message", request.getMessage() != null ? request.getMessage() : "No additional message provided."
         );
     }
-      private String buildWhatsAppMessage(OfferingRequest request) {
+    private String buildWhatsAppMessage(OfferingRequest request, OfferingSnapshot offering) {
         // Get detailed offering information for WhatsApp
-        String offeringDetails = getOfferingDetailsForWhatsApp(request.getOfferingId());
+        String offeringDetails = getOfferingDetailsForWhatsApp(offering);
         
-        return String.format(
-            "🎁 *NEW OFFERING REQUEST*\n\n" +
-            "👤 *Client:* %s\n" +
-            "📧 *Contact:* %s\n\n" +
-            "%s\n\n" +
-            "💬 *Message:*\n%s\n\n" +
-            "⏰ *Please respond within 24 hours*",
-            request.getName() != null ? request.getName() : "Not provided",
-            request.getContact() != null ? request.getContact() : "Not provided",
-            offeringDetails,
-            request.getMessage() != null ? request.getMessage() : "No message provided"
+        return templates.render("offering-request.whatsapp",
+            "name", request.getName() != null ? request.getName() : "Not provided",
+            "contact", request.getContact() != null ? request.getContact() : "Not provided",
+            "offeringDetails", offeringDetails,
+            "message", request.getMessage() != null ? request.getMessage() : "No message provided"
         );
     }
 }
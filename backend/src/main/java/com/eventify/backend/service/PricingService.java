@@ -0,0 +1,110 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.EventOffering;
+import com.eventify.backend.entity.GlobalSetting;
+import com.eventify.backend.repository.EventOfferingRepository;
+import com.eventify.backend.repository.GlobalSettingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The one place offering discounts are applied.
+ * An offering's effective price is its SPECIAL price when that is set and below the approximate price, the
+ * approximate price minus the global discount percentage (rounded to whole rupees) for GLOBAL offerings, and the
+ * approximate price otherwise. It is stored on the offering (effectivePrice) whenever the offering is written and
+ * for every GLOBAL offering when the global discount changes, so search, sorting and notifications read the same value.
+ */
+@Service
+public class PricingService {
+
+    @Autowired
+    private EventOfferingRepository eventOfferingRepository;
+
+    @Autowired
+    private GlobalSettingRepository globalSettingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The global discount percentage (0 if unset or invalid).
+     */
+    public BigDecimal globalDiscount() {
+        return globalSettingRepository.findValueByKey("global_discount")
+                .map(value -> {
+                    try {
+                        return new BigDecimal(value);
+                    } catch (NumberFormatException e) {
+                        return BigDecimal.ZERO;
+                    }
+                })
+                .orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Sets the effective price of an offering that is about to be saved.
+     */
+    public void apply(EventOffering offering) {
+        offering.setEffectivePrice(effectivePrice(offering, globalDiscount()));
+    }
+
+    /**
+     * Stores a new global discount percentage (already validated) and reprices the GLOBAL offerings in the same
+     * transaction, with one bulk UPDATE rather than loading every offering. Returns the number of offerings repriced.
+     */
+    public int setGlobalDiscount(String value) {
+        BigDecimal discount = new BigDecimal(value);
+        Integer repriced = transactionTemplate.execute(status -> {
+            GlobalSetting setting = globalSettingRepository.findByKey("global_discount")
+                    .orElseGet(() -> new GlobalSetting("global_discount", value));
+            setting.setValue(value);
+            globalSettingRepository.save(setting);
+            Instant now = Instant.now();
+            // Same arithmetic as effectivePrice(), so both paths agree on the rounded price
+            return discount.signum() > 0
+                    ? eventOfferingRepository.repriceGlobal(1 - discount.doubleValue() / 100, now)
+                    : eventOfferingRepository.resetGlobalPrices(now);
+        });
+        return repriced != null ? repriced : 0;
+    }
+
+    // Fills in offerings saved before effective prices were stored
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            Integer changed = transactionTemplate.execute(status -> {
+                BigDecimal globalDiscount = globalDiscount();
+                List<EventOffering> unpriced = eventOfferingRepository.findByEffectivePriceIsNullAndApproximatePriceIsNotNull();
+                unpriced.forEach(offering -> offering.setEffectivePrice(effectivePrice(offering, globalDiscount)));
+                return unpriced.size();
+            });
+            if (changed != null && changed > 0) {
+                System.out.println("Updated effective price of " + changed + " offerings");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update effective offering prices: " + e.getMessage());
+        }
+    }
+
+    public static Double effectivePrice(EventOffering offering, BigDecimal globalDiscount) {
+        Double price = offering.getApproximatePrice();
+        if (price == null || offering.getDiscountType() == null) {
+            return price;
+        }
+        if ("SPECIAL".equalsIgnoreCase(offering.getDiscountType())) {
+            Double special = offering.getSpecificDiscountedPrice();
+            return special != null && special < price ? special : price;
+        }
+        if ("GLOBAL".equalsIgnoreCase(offering.getDiscountType()) && globalDiscount != null && globalDiscount.signum() > 0) {
+            return (double) Math.round(price * (1 - globalDiscount.doubleValue() / 100));
+        }
+        return price;
+    }
+}
@@ -0,0 +1,157 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.StoredImage;
+import com.eventify.backend.pojo.UploadedImage;
+import com.eventify.backend.repository.StoredImageRepository;
+import com.eventify.backend.util.ImageVariants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Content-addressed index over uploaded images (see StoredImage).
+ * An upload is hashed before anything else; if the same bytes were uploaded before, the stored object is reused
+ * with one more reference and the file is neither compressed nor sent again.
+ * Every event image and offering holding an indexed URL owns one reference: take one with retain() when a URL is
+ * assigned by hand and give it back with release() once the image is gone; the last release deletes the object.
+ * URLs that are not in the index (uploaded before it existed, or external links) are never deleted.
+ */
+@Service
+public class StoredImageService {
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    @Autowired
+    private SupabaseStorageService supabaseStorageService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public StoredImageService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Hex SHA-256 of the upload's original bytes. The file is streamed, not loaded into memory.
+     */
+    public String hash(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = file.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Takes a reference to the stored copy of this content, or returns null if it has not been stored.
+     */
+    public UploadedImage reuse(String hash) {
+        return transactionTemplate.execute(status -> {
+            // The increment locks the row, so a concurrent last release cannot delete it under us
+            if (storedImageRepository.acquire(hash) == 0) {
+                return null;
+            }
+            return storedImageRepository.findByContentHash(hash)
+                    .map(stored -> new UploadedImage(stored.getUrl(), stored.getVariantNames()))
+                    .orElse(null);
+        });
+    }
+
+    /**
+     * Indexes a freshly uploaded image under its hash, holding one reference.
+     * If another request stored the same content meanwhile, that copy is reused and this one deleted.
+     */
+    public UploadedImage record(String hash, String bucket, String path, UploadedImage uploaded) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                storedImageRepository.saveAndFlush(new StoredImage(hash, bucket, path, uploaded.url(), uploaded.variants()));
+                return uploaded;
+            } catch (DataIntegrityViolationException e) {
+                UploadedImage existing = reuse(hash);
+                if (existing != null) {
+                    deleteObjects(bucket, path, uploaded.variants());
+                    return existing;
+                }
+                // The other copy was released before we could reuse it; try indexing ours again
+            }
+        }
+        System.err.println("Could not index image " + bucket + "/" + path + ", keeping it unindexed");
+        return uploaded;
+    }
+
+    /**
+     * Takes a reference for a URL assigned without uploading (e.g. copied from another image). No-op for URLs
+     * that are not indexed.
+     */
+    public void retain(String url) {
+        if (url != null && !url.isBlank()) {
+            transactionTemplate.executeWithoutResult(status -> storedImageRepository.acquireByUrl(url));
+        }
+    }
+
+    public void release(String url) {
+        if (url != null) {
+            release(List.of(url));
+        }
+    }
+
+    /**
+     * Gives back one reference per URL (a URL listed twice loses two) and deletes the objects nobody
+     * references anymore. Call after the change that dropped the references has been saved.
+     */
+    public void release(Collection<String> urls) {
+        for (String url : urls) {
+            if (url == null || url.isBlank()) {
+                continue;
+            }
+            try {
+                StoredImage unreferenced = transactionTemplate.execute(status -> storedImageRepository.findFirstByUrl(url)
+                        .filter(stored -> storedImageRepository.release(stored.getId()) == 1
+                                && storedImageRepository.deleteIfUnreferenced(stored.getId()) == 1)
+                        .orElse(null));
+                if (unreferenced != null) {
+                    deleteObjects(unreferenced.getBucket(), unreferenced.getPath(), unreferenced.getVariantNames());
+                }
+            } catch (RuntimeException e) {
+                // Worst case the object stays in storage; the entity change itself already went through
+                System.err.println("Failed to release image " + url + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void deleteObjects(String bucket, String path, String variantNames) {
+        List<String> paths = new ArrayList<>();
+        paths.add(path);
+        if (variantNames != null && !variantNames.isBlank()) {
+            for (String variant : variantNames.split(",")) {
+                paths.add(ImageVariants.pathOf(path, variant));
+            }
+        }
+        try {
+            supabaseStorageService.delete(bucket, paths);
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + bucket + "/" + path + " from storage: " + e.getMessage());
+        }
+    }
+}
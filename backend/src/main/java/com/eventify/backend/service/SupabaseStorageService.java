@@ -1,27 +1,65 @@
 package com.eventify.backend.service;
 
+import com.eventify.backend.pojo.ProcessedImage;
+import com.eventify.backend.pojo.ProcessedImages;
+import com.eventify.backend.pojo.UploadedImage;
+import com.eventify.backend.util.ImageVariants;
+import com.eventify.backend.util.SpoolingOutputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import net.coobird.thumbnailator.Thumbnails;
+import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
-import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
+/**
+ * Uploads images to Supabase Storage over one shared, pooled HTTP client.
+ * Connections are kept alive between requests, so the uploads of a multi-image event reuse warm TLS connections
+ * instead of handshaking for every call. Pool size, per-route limit, timeouts and keep-alive come from
+ * supabase.http.*; pool usage is exported as the httpcomponents.httpclient.pool.* metrics tagged httpclient=supabase.
+ * Buckets are checked (and created if missing) once, at startup for supabase.buckets or on first use otherwise,
+ * and only checked again after an upload to them fails.
+ */
 @Service
 public class SupabaseStorageService {
     
     private static final Logger logger = Logger.getLogger(SupabaseStorageService.class.getName());
     private static final long MAX_FALLBACK_SIZE = 5 * 1024 * 1024; // 5MB
+    private static final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${supabase.url}")
     private String supabaseUrl;
@@ -29,6 +67,88 @@ public class SupabaseStorageService {
     @Value("${supabase.service.key}")
     private String supabaseServiceKey;
 
+    @Value("${supabase.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${supabase.http.max-connections-per-route:10}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${supabase.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${supabase.http.response-timeout:60s}")
+    private Duration responseTimeout;
+
+    @Value("${supabase.http.connection-request-timeout:10s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${supabase.http.keep-alive:60s}")
+    private Duration keepAlive;
+
+    // Compressed images up to this size stay in memory, larger ones are spooled to a temp file
+    @Value("${supabase.upload.memory-threshold:262144}")
+    private int memoryThreshold;
+
+    // Also store thumb / medium / large sizes and WebP versions of every image
+    @Value("${supabase.upload.variants:true}")
+    private boolean variantsEnabled;
+
+    @Value("${supabase.buckets:images,event-files,offerings}")
+    private List<String> knownBuckets;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Buckets known to exist; uploads to these skip the create-bucket request
+    private final Set<String> verifiedBuckets = ConcurrentHashMap.newKeySet();
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @PostConstruct
+    void init() {
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        // Re-check a pooled connection before reuse if it sat idle, the server may have dropped it
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        // Used when the server sends no Keep-Alive header
+                        .setDefaultKeepAlive(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "supabase").bindTo(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyKnownBuckets() {
+        for (String bucket : knownBuckets) {
+            try {
+                createBucketIfNotExists(bucket);
+            } catch (Exception e) {
+                logger.warning("Could not create/verify bucket " + bucket + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (httpClient != null) {
+            httpClient.close(CloseMode.GRACEFUL);
+        }
+    }
+
     /**
      * Uploads and compresses an image file to Supabase Storage.
      * Supports WebP, JPEG, PNG, GIF, BMP formats.
@@ -41,132 +161,223 @@ public class SupabaseStorageService {
      * @throws IOException If upload fails or file is too large
      */
     public String uploadCompressedImage(MultipartFile file, String bucket, String path) throws IOException {
-        // Ensure the bucket exists
-        try {
-            createBucketIfNotExists(bucket);
-        } catch (Exception e) {
-            logger.warning("Could not create/verify bucket: " + e.getMessage());
+        return uploadWithVariants(file, bucket, path).url();
+    }
+
+    /**
+     * Like uploadCompressedImage, and also stores the resized variants (see ImageVariants) next to the image.
+     */
+    public UploadedImage uploadWithVariants(MultipartFile file, String bucket, String path) throws IOException {
+        try (ProcessedImages images = compress(file)) {
+            return upload(images, bucket, path);
         }
-        
-        // Compress image using Thumbnailator
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Compresses an image for upload (CPU only, no network). See uploadCompressedImage for the fallback rules.
+     * The upload is decoded and scaled to 1024px once; the main JPEG and, if supabase.upload.variants is on,
+     * each smaller size and WebP version are encoded from that.
+     * The results are streamed into spools rather than byte arrays: output beyond supabase.upload.memory-threshold
+     * goes to a temp file, and the fallback reads the original upload directly instead of copying it.
+     * Close the returned images when done with them.
+     */
+    public ProcessedImages compress(MultipartFile file) throws IOException {
+        BufferedImage large;
+        ProcessedImage main;
         try {
-            // Convert to JPEG format for optimal compression and compatibility
-            Thumbnails.of(file.getInputStream())
+            large = Thumbnails.of(file.getInputStream())
                     .size(1024, 1024)
-                    .outputQuality(0.7)
-                    .outputFormat("JPEG")
-                    .toOutputStream(outputStream);
+                    .asBufferedImage();
+            // Convert to JPEG format for optimal compression and compatibility
+            main = encode(large, 1024, "JPEG", "image/jpeg");
         } catch (Exception e) {
             // Fallback: use original file if compression fails and file is small enough
             if (file.getSize() <= MAX_FALLBACK_SIZE) {
                 logger.info("Using original file without compression due to format issue: " + file.getOriginalFilename());
-                try {
-                    file.getInputStream().transferTo(outputStream);
-                } catch (IOException ioE) {
-                    throw new IOException("Failed to process image file: " + e.getMessage());
-                }
+                // Use original content type or default to JPEG
+                String contentType = file.getContentType() != null ? file.getContentType() : "image/jpeg";
+                return new ProcessedImages(ProcessedImage.original(file, file.getSize(), contentType), Map.of());
             } else {
                 throw new IOException("Image file is too large and cannot be compressed. " +
                     "Supported formats: JPEG, PNG, GIF, BMP, WebP. Maximum size for fallback: 5MB. " +
                     "File: " + file.getOriginalFilename());
             }
         }
-        
-        byte[] imageBytes = outputStream.toByteArray();
-        
-        // Determine content type
-        String contentType = determineContentType(file, imageBytes);
-        
-        // Upload to Supabase Storage
-        return uploadToSupabase(imageBytes, contentType, bucket, path);
+
+        // We compressed the image, it's now JPEG
+        Map<String, ProcessedImage> variants = new LinkedHashMap<>();
+        if (variantsEnabled) {
+            for (ImageVariants.Size size : ImageVariants.SIZES) {
+                for (String format : List.of(ImageVariants.JPEG, ImageVariants.WEBP)) {
+                    if (ImageVariants.isMain(size, format)) {
+                        continue;
+                    }
+                    try {
+                        variants.put(ImageVariants.fileName(size, format), ImageVariants.WEBP.equals(format)
+                                ? encode(large, size.width(), "webp", "image/webp")
+                                : encode(large, size.width(), "JPEG", "image/jpeg"));
+                    } catch (Exception e) {
+                        // A missing variant only costs page weight; the main image is still good
+                        logger.warning("Could not create " + ImageVariants.fileName(size, format) + " variant of "
+                                + file.getOriginalFilename() + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return new ProcessedImages(main, variants);
+    }
+
+    private ProcessedImage encode(BufferedImage image, int maxSize, String format, String contentType) throws IOException {
+        SpoolingOutputStream outputStream = new SpoolingOutputStream(memoryThreshold);
+        try {
+            Thumbnails.of(image)
+                    .size(maxSize, maxSize)
+                    .outputQuality(0.7)
+                    .outputFormat(format)
+                    .toOutputStream(outputStream);
+            outputStream.close();
+            return ProcessedImage.spooled(outputStream, contentType);
+        } catch (IOException | RuntimeException e) {
+            outputStream.discard();
+            throw e;
+        }
     }
 
     /**
-     * Determines the appropriate content type for the upload
+     * Uploads images produced by compress(): the main image at path, then its variants next to it.
      */
-    private String determineContentType(MultipartFile file, byte[] processedBytes) {
-        // If we compressed the image, it's now JPEG
-        if (processedBytes.length != file.getSize()) {
-            return "image/jpeg";
+    public UploadedImage upload(ProcessedImages images, String bucket, String path) throws IOException {
+        String url = upload(images.main(), bucket, path);
+        List<String> stored = new ArrayList<>(images.variants().size());
+        for (Map.Entry<String, ProcessedImage> variant : images.variants().entrySet()) {
+            try {
+                upload(variant.getValue(), bucket, ImageVariants.pathOf(path, variant.getKey()));
+                stored.add(variant.getKey());
+            } catch (IOException e) {
+                logger.warning("Could not upload " + variant.getKey() + " variant of " + path + ": " + e.getMessage());
+            }
         }
-        // Otherwise, use original content type or default to JPEG
-        return file.getContentType() != null ? file.getContentType() : "image/jpeg";
+        return new UploadedImage(url, stored.isEmpty() ? null : String.join(",", stored));
     }
 
     /**
-     * Uploads the processed image bytes to Supabase Storage
+     * Uploads a single processed image and returns its public URL.
      */
-    private String uploadToSupabase(byte[] imageBytes, String contentType, String bucket, String path) throws IOException {
+    public String upload(ProcessedImage image, String bucket, String path) throws IOException {
+        // Ensure the bucket exists
+        if (!verifiedBuckets.contains(bucket)) {
+            try {
+                createBucketIfNotExists(bucket);
+            } catch (Exception e) {
+                logger.warning("Could not create/verify bucket: " + e.getMessage());
+            }
+        }
+        
+        // Upload to Supabase Storage
+        try {
+            return uploadToSupabase(image, bucket, path);
+        } catch (IOException e) {
+            // The bucket may have been deleted; check it again before the next upload
+            verifiedBuckets.remove(bucket);
+            throw e;
+        }
+    }
+
+    /**
+     * Streams the processed image to Supabase Storage
+     */
+    private String uploadToSupabase(ProcessedImage image, String bucket, String path) throws IOException {
+        String contentType = image.contentType();
         String uploadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucket, path);
         
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPost post = new HttpPost(uploadUrl);
-            post.setHeader("Authorization", "Bearer " + supabaseServiceKey);
-            post.setHeader("Content-Type", contentType);
-            post.setHeader("Cache-Control", "3600");
-            post.setHeader("x-upsert", "true");
-            
-            ByteArrayEntity entity = new ByteArrayEntity(imageBytes, ContentType.create(contentType));
-            post.setEntity(entity);
+        HttpPost post = new HttpPost(uploadUrl);
+        post.setHeader("Authorization", "Bearer " + supabaseServiceKey);
+        post.setHeader("Content-Type", contentType);
+        post.setHeader("Cache-Control", "3600");
+        post.setHeader("x-upsert", "true");
+        
+        // Sent with a Content-Length, copied to the socket through the client's small transfer buffer
+        InputStreamEntity entity = new InputStreamEntity(image.content().getInputStream(), image.size(), ContentType.create(contentType));
+        post.setEntity(entity);
+        
+        return httpClient.execute(post, response -> {
+            int status = response.getCode();
             
-            return client.execute(post, response -> {
-                int status = response.getCode();
-                
-                if (status < 200 || status >= 300) {
-                    String responseBody = "";
-                    HttpEntity responseEntity = response.getEntity();
-                    if (responseEntity != null) {
-                        try {
-                            responseBody = EntityUtils.toString(responseEntity);
-                        } catch (Exception e) {
-                            logger.warning("Error reading response body: " + e.getMessage());
-                        }
-                    }
-                    
-                    // Log specific authentication errors
-                    if (status == 403 || responseBody.contains("Unauthorized")) {
-                        logger.severe("Supabase authentication failed. Check service key configuration.");
+            if (status < 200 || status >= 300) {
+                String responseBody = "";
+                HttpEntity responseEntity = response.getEntity();
+                if (responseEntity != null) {
+                    try {
+                        responseBody = EntityUtils.toString(responseEntity);
+                    } catch (Exception e) {
+                        logger.warning("Error reading response body: " + e.getMessage());
                     }
-                    
-                    throw new IOException("Failed to upload image to Supabase: " + status + " - " + responseBody);
                 }
                 
-                // Return the public URL for the uploaded image
-                return String.format("%s/storage/v1/object/public/%s/%s", supabaseUrl, bucket, path);
-            });
-        }
+                // Log specific authentication errors
+                if (status == 403 || responseBody.contains("Unauthorized")) {
+                    logger.severe("Supabase authentication failed. Check service key configuration.");
+                }
+                
+                throw new IOException("Failed to upload image to Supabase: " + status + " - " + responseBody);
+            }
+            
+            // Return the public URL for the uploaded image
+            return String.format("%s/storage/v1/object/public/%s/%s", supabaseUrl, bucket, path);
+        });
     }
     
     /**
-     * Creates a Supabase storage bucket if it doesn't exist
+     * Deletes objects from a bucket in one request. Paths that do not exist are skipped by Supabase.
+     */
+    public void delete(String bucket, List<String> paths) throws IOException {
+        String deleteUrl = String.format("%s/storage/v1/object/%s", supabaseUrl, bucket);
+
+        HttpDelete delete = new HttpDelete(deleteUrl);
+        delete.setHeader("Authorization", "Bearer " + supabaseServiceKey);
+        delete.setEntity(new StringEntity(objectMapper.writeValueAsString(Map.of("prefixes", paths)), ContentType.APPLICATION_JSON));
+
+        httpClient.execute(delete, response -> {
+            int status = response.getCode();
+            HttpEntity responseEntity = response.getEntity();
+            String responseBody = responseEntity != null ? EntityUtils.toString(responseEntity) : "";
+            if (status < 200 || status >= 300) {
+                throw new IOException("Failed to delete from Supabase: " + status + " - " + responseBody);
+            }
+            logger.fine("Deleted " + paths + " from bucket " + bucket);
+            return null;
+        });
+    }
+
+    /**
+     * Creates a Supabase storage bucket if it doesn't exist, and remembers it as verified once it does
      */
     public void createBucketIfNotExists(String bucket) throws IOException {
         String createBucketUrl = String.format("%s/storage/v1/bucket", supabaseUrl);
         String bucketJson = String.format("{\"id\":\"%s\",\"name\":\"%s\",\"public\":true}", bucket, bucket);
         
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPost post = new HttpPost(createBucketUrl);
-            post.setHeader("Authorization", "Bearer " + supabaseServiceKey);
-            post.setHeader("Content-Type", "application/json");
+        HttpPost post = new HttpPost(createBucketUrl);
+        post.setHeader("Authorization", "Bearer " + supabaseServiceKey);
+        post.setHeader("Content-Type", "application/json");
+        
+        StringEntity entity = new StringEntity(bucketJson, ContentType.APPLICATION_JSON);
+        post.setEntity(entity);
+        
+        httpClient.execute(post, response -> {
+            int status = response.getCode();
             
-            StringEntity entity = new StringEntity(bucketJson, ContentType.APPLICATION_JSON);
-            post.setEntity(entity);
+            if (status == 200 || status == 201) {
+                logger.info("Bucket created successfully: " + bucket);
+                verifiedBuckets.add(bucket);
+            } else if (status == 409) {
+                // Bucket already exists - this is fine
+                logger.fine("Bucket already exists: " + bucket);
+                verifiedBuckets.add(bucket);
+            } else {
+                logger.warning("Failed to create bucket " + bucket + ": " + status);
+            }
             
-            client.execute(post, response -> {
-                int status = response.getCode();
-                
-                if (status == 200 || status == 201) {
-                    logger.info("Bucket created successfully: " + bucket);
-                } else if (status == 409) {
-                    // Bucket already exists - this is fine
-                    logger.fine("Bucket already exists: " + bucket);
-                } else {
-                    logger.warning("Failed to create bucket " + bucket + ": " + status);
-                }
-                
-                return null;
-            });
-        }
+            return null;
+        });
     }
 }
@@ -1,41 +1,150 @@
 package com.eventify.backend.service;
 
-import com.twilio.Twilio;
+import com.eventify.backend.util.RateLimiter;
+import com.twilio.http.HttpClient;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WhatsApp channel backed by one long-lived Twilio client.
+ * The client keeps a pooled keep-alive connection manager sized to twilio.whatsapp.max-concurrent, at most that
+ * many messages are in flight at once, and sends are spaced to twilio.whatsapp.messages-per-second so bursts
+ * stay under the sender number's throughput instead of being throttled by Twilio.
+ * Set twilio.api.base-url to send to a local stub server instead of api.twilio.com.
+ */
 @Service
-public class WhatsAppService {
-    
+public class WhatsAppService implements NotificationSender {
+
     @Value("${twilio.account.sid:}")
     private String accountSid;
-    
+
     @Value("${twilio.auth.token:}")
     private String authToken;
       @Value("${twilio.whatsapp.from:}")
     private String fromWhatsAppNumber;
-    
-    public void sendMessage(String toPhoneNumber, String messageBody) {
+
+    @Value("${twilio.whatsapp.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${twilio.whatsapp.messages-per-second:1}")
+    private double messagesPerSecond;
+
+    @Value("${twilio.api.base-url:}")
+    private String apiBaseUrl;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private TwilioRestClient client;
+    private Semaphore inFlight;
+    private RateLimiter rateLimiter;
+
+    @PostConstruct
+    void init() {
+        inFlight = new Semaphore(maxConcurrent);
+        rateLimiter = new RateLimiter(messagesPerSecond);
+        if (!isConfigured()) {
+            return;
+        }
+        connectionManager = new PoolingHttpClientConnectionManager(30, TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(maxConcurrent);
+        connectionManager.setDefaultMaxPerRoute(maxConcurrent);
+        HttpClient httpClient = new NetworkHttpClient(HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(HttpClient.DEFAULT_REQUEST_CONFIG)
+                .setDefaultSocketConfig(HttpClient.DEFAULT_SOCKET_CONFIG)
+                .evictIdleConnections(60, TimeUnit.SECONDS));
+        if (!apiBaseUrl.isEmpty()) {
+            httpClient = new BaseUrlHttpClient(httpClient, apiBaseUrl);
+        }
+        client = new TwilioRestClient.Builder(accountSid, authToken).httpClient(httpClient).build();
+    }
+
+    @PreDestroy
+    void close() {
+        if (connectionManager != null) {
+            connectionManager.shutdown();
+        }
+    }
+
+    private boolean isConfigured() {
+        return !accountSid.isEmpty() && !authToken.isEmpty() && !fromWhatsAppNumber.isEmpty();
+    }
+
+    @Override
+    public String channel() {
+        return NotificationDispatcher.WHATSAPP;
+    }
+
+    /**
+     * Sends a WhatsApp message through Twilio, throwing if Twilio rejects it. WhatsApp has no subject line.
+     * Blocks while the concurrency limit or the rate limit is reached.
+     */
+    @Override
+    public void send(String toPhoneNumber, String subject, String messageBody) throws InterruptedException {
+        if (client == null) {
+            System.out.println("WhatsApp not configured. Would send message to " + toPhoneNumber + ": " + messageBody);
+            return;
+        }
+
+        inFlight.acquire();
         try {
-            if (accountSid.isEmpty() || authToken.isEmpty() || fromWhatsAppNumber.isEmpty()) {
-                System.out.println("WhatsApp not configured. Would send message to " + toPhoneNumber + ": " + messageBody);
-                return;
-            }
-            
-            Twilio.init(accountSid, authToken);
-            
+            rateLimiter.acquire();
             Message message = Message.creator(
                 new PhoneNumber("whatsapp:" + toPhoneNumber),
                 new PhoneNumber("whatsapp:" + fromWhatsAppNumber),
                 messageBody
-            ).create();
-            
+            ).create(client);
+
             System.out.println("WhatsApp message sent successfully: " + message.getSid());
-        } catch (Exception e) {
-            System.err.println("Failed to send WhatsApp message to " + toPhoneNumber + ": " + e.getMessage());
-            // Don't throw exception - just log the error
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Sends every request to another base URL (e.g. http://localhost:8089) keeping the path, params and auth.
+     */
+    private static class BaseUrlHttpClient extends HttpClient {
+        private final HttpClient delegate;
+        private final String baseUrl;
+
+        BaseUrlHttpClient(HttpClient delegate, String baseUrl) {
+            this.delegate = delegate;
+            this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        }
+
+        @Override
+        public Response makeRequest(Request request) {
+            Request rewritten = new Request(request.getMethod(), baseUrl + request.constructURL().getPath());
+            if (request.requiresAuthentication()) {
+                rewritten.setAuth(request.getUsername(), request.getPassword());
+            }
+            rewritten.setContentType(request.getContentType());
+            rewritten.setUserAgentExtensions(request.getUserAgentExtensions());
+            for (Map.Entry<String, List<String>> param : request.getQueryParams().entrySet()) {
+                param.getValue().forEach(value -> rewritten.addQueryParam(param.getKey(), value));
+            }
+            for (Map.Entry<String, List<String>> param : request.getPostParams().entrySet()) {
+                param.getValue().forEach(value -> rewritten.addPostParam(param.getKey(), value));
+            }
+            for (Map.Entry<String, List<String>> param : request.getHeaderParams().entrySet()) {
+                param.getValue().forEach(value -> rewritten.addHeaderParam(param.getKey(), value));
+            }
+            return delegate.makeRequest(rewritten);
         }
     }
 }
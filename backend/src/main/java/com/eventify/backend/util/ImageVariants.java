@@ -0,0 +1,66 @@
+package com.eventify.backend.util;
+
+import com.eventify.backend.pojo.ImageVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sizes generated for every uploaded image and where they are stored.
+ * A variant sits next to the main image, with the variant name appended: images/6/abc.png is accompanied by
+ * images/6/abc_thumb.jpg, images/6/abc_thumb.webp, ... The main image is itself the large JPEG, so that
+ * one is not stored twice. Entities keep only the names of the variants that were stored and derive the URLs.
+ */
+public final class ImageVariants {
+
+    public static final String JPEG = "jpg";
+    public static final String WEBP = "webp";
+
+    public record Size(String name, int width) {}
+
+    // Smallest first; the last one matches the main image
+    public static final List<Size> SIZES = List.of(new Size("thumb", 320), new Size("medium", 640), new Size("large", 1024));
+
+    private ImageVariants() {}
+
+    public static String fileName(Size size, String format) {
+        return size.name() + "." + format;
+    }
+
+    public static boolean isMain(Size size, String format) {
+        return size == SIZES.get(SIZES.size() - 1) && JPEG.equals(format);
+    }
+
+    /**
+     * Path (or URL) of a variant stored next to the main image at mainPath.
+     */
+    public static String pathOf(String mainPath, String variantFileName) {
+        int slash = mainPath.lastIndexOf('/');
+        int dot = mainPath.lastIndexOf('.');
+        String base = dot > slash ? mainPath.substring(0, dot) : mainPath;
+        return base + "_" + variantFileName;
+    }
+
+    /**
+     * Variants of the image at mainUrl, smallest first, given the stored variant names. Empty if there are none.
+     */
+    public static List<ImageVariant> resolve(String mainUrl, String storedVariants) {
+        if (mainUrl == null || storedVariants == null || storedVariants.isBlank()) {
+            return List.of();
+        }
+        List<String> stored = List.of(storedVariants.split(","));
+        List<ImageVariant> variants = new ArrayList<>(SIZES.size());
+        for (Size size : SIZES) {
+            String jpeg = isMain(size, JPEG) ? mainUrl : urlIfStored(mainUrl, stored, fileName(size, JPEG));
+            String webp = urlIfStored(mainUrl, stored, fileName(size, WEBP));
+            if (jpeg != null || webp != null) {
+                variants.add(new ImageVariant(size.name(), size.width(), jpeg, webp));
+            }
+        }
+        return variants;
+    }
+
+    private static String urlIfStored(String mainUrl, List<String> stored, String fileName) {
+        return stored.contains(fileName) ? pathOf(mainUrl, fileName) : null;
+    }
+}
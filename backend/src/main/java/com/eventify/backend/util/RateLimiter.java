@@ -0,0 +1,30 @@
+package com.eventify.backend.util;
+
+/**
+ * Spaces out calls to a fixed rate. acquire() blocks until the caller's slot comes up, so callers proceed
+ * one interval apart instead of in bursts.
+ */
+public class RateLimiter {
+    private final long intervalNanos;
+    private long nextFreeSlot = System.nanoTime();
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextFreeSlot, now);
+            nextFreeSlot = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.eventify.backend.util;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Collects output in memory up to a threshold and moves it to a temp file beyond that, so holding the output
+ * never costs more than the threshold in heap. Read it back with openStream() once writing is done
+ * (close() only ends writing); discard() releases the buffer and deletes the temp file.
+ */
+public class SpoolingOutputStream extends OutputStream {
+    private final int threshold;
+    private byte[] buffer;
+    private int count;
+    private Path spoolFile;
+    private OutputStream fileOut;
+    private long size;
+    private boolean closed;
+
+    public SpoolingOutputStream(int threshold) {
+        this.threshold = threshold;
+        this.buffer = new byte[Math.min(threshold, 8192)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (fileOut == null && count + len > threshold) {
+            spoolFile = Files.createTempFile("eventify-upload-", ".tmp");
+            fileOut = new BufferedOutputStream(Files.newOutputStream(spoolFile));
+            fileOut.write(buffer, 0, count);
+            buffer = null;
+        }
+        if (fileOut != null) {
+            fileOut.write(b, off, len);
+        } else {
+            if (count + len > buffer.length) {
+                byte[] grown = new byte[Math.min(threshold, Math.max(buffer.length * 2, count + len))];
+                System.arraycopy(buffer, 0, grown, 0, count);
+                buffer = grown;
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+        size += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileOut != null) {
+            fileOut.flush();
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isInMemory() {
+        return spoolFile == null;
+    }
+
+    /**
+     * Reads back everything written so far, without copying the in-memory buffer.
+     */
+    public InputStream openStream() throws IOException {
+        if (spoolFile == null) {
+            return new ByteArrayInputStream(buffer, 0, count);
+        }
+        if (fileOut != null) {
+            fileOut.flush();
+        }
+        return new BufferedInputStream(Files.newInputStream(spoolFile));
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (fileOut != null) {
+            fileOut.close();
+            fileOut = null;
+        }
+    }
+
+    public void discard() throws IOException {
+        close();
+        buffer = null;
+        count = 0;
+        if (spoolFile != null) {
+            Files.deleteIfExists(spoolFile);
+            spoolFile = null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.eventify.backend.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A staged upload read back from disk, so the image pipeline can treat it like the original multipart file.
+ */
+public class StagedFile implements MultipartFile {
+    // Staged uploads are served from here until they are stored (see MediaJobService)
+    public static final String PREVIEW_PATH = "/api/media/staged/";
+
+    private final Path file;
+    private final String originalFilename;
+    private final String contentType;
+
+    public StagedFile(Path file, String originalFilename, String contentType) {
+        this.file = file;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Whether url points at a staged upload rather than a stored image.
+     */
+    public static boolean isPreviewUrl(String url) {
+        return url != null && url.contains(PREVIEW_PATH);
+    }
+
+    @Override
+    public String getName() {
+        return "image";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(file);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        Files.copy(file, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,166 @@
+package com.eventify.backend;
+
+import com.eventify.backend.entity.Category;
+import com.eventify.backend.entity.DescriptionSection;
+import com.eventify.backend.entity.Event;
+import com.eventify.backend.entity.EventImage;
+import com.eventify.backend.pojo.EventSnapshot;
+import com.eventify.backend.repository.CategoryRepository;
+import com.eventify.backend.repository.EventRepository;
+import com.eventify.backend.service.EventCatalogService;
+import com.eventify.backend.service.EventNotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements behind the catalogue reads and notification rendering with Hibernate statistics.
+ * The number of statements must not depend on how many events (images, description sections) are listed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=KEY,VALUE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keep the background pollers off the counters
+        "notifications.outbox.poll-interval=1h",
+        "images.jobs.poll-interval=1h"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class QueryCountTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCatalogService eventCatalogService;
+
+    @Autowired
+    private EventNotificationService eventNotificationService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            eventRepository.deleteAll();
+            categoryRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void catalogueQueriesDoNotGrowWithTheNumberOfEvents() {
+        addEvents(5);
+        // event ids, events with images and category, description sections (one batch)
+        assertEquals(3, statementsFor(() -> eventCatalogService.findPage(null, 50)));
+        // the same; the total needs no count query while the page is not full
+        assertEquals(3, statementsFor(() -> eventCatalogService.findSorted("title", "asc", 0, 50)));
+
+        addEvents(25);
+        assertEquals(3, statementsFor(() -> eventCatalogService.findPage(null, 50)));
+        assertEquals(3, statementsFor(() -> eventCatalogService.findSorted("title", "asc", 0, 50)));
+        // a full page adds the count query
+        assertEquals(4, statementsFor(() -> eventCatalogService.findSorted("title", "asc", 0, 20)));
+    }
+
+    @Test
+    void listEndpointsDoNotGrowWithTheNumberOfEvents() {
+        addEvents(5);
+        long page = statementsFor(() -> perform("/api/events/page?size=50"));
+        long sorted = statementsFor(() -> perform("/api/events/sorted?sort=date&page=0&size=50"));
+
+        addEvents(25);
+        assertEquals(page, statementsFor(() -> perform("/api/events/page?size=50")));
+        assertEquals(sorted, statementsFor(() -> perform("/api/events/sorted?sort=date&page=0&size=50")));
+    }
+
+    @Test
+    void notificationsAreRenderedWithoutReadingTheEvent() {
+        addEvents(1);
+        EventSnapshot event = EventSnapshot.of(eventRepository.findAll().get(0));
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> eventNotificationService.sendEventCreatedNotification(event));
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        for (String query : statistics.getQueries()) {
+            assertTrue(query.contains("NotificationOutbox") || query.contains("notification_outbox"), query);
+        }
+    }
+
+    private long statementsFor(ThrowingRunnable action) {
+        statistics.clear();
+        try {
+            action.run();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void perform(String path) throws Exception {
+        mockMvc.perform(get(path)).andExpect(status().isOk());
+    }
+
+    private void addEvents(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Category category = categoryRepository.findByName("Music").orElseGet(() -> {
+                Category c = new Category();
+                c.setName("Music");
+                c.setEmoji("🎵");
+                return categoryRepository.save(c);
+            });
+            for (int i = 0; i < count; i++) {
+                Event event = new Event();
+                event.setTitle("Event " + i);
+                event.setDate(LocalDate.of(2026, 1, 1).plusDays(i));
+                event.setCategory(category);
+                for (int s = 0; s < 2; s++) {
+                    DescriptionSection section = new DescriptionSection();
+                    section.setTitle("Section " + s);
+                    section.setDescription("Details");
+                    event.getDescriptions().add(section);
+                }
+                for (int o = 0; o < 3; o++) {
+                    EventImage image = new EventImage();
+                    image.setUrl("https://storage.example.com/events/" + i + "-" + o + ".webp");
+                    image.setOrder(o);
+                    image.setEvent(event);
+                    event.getImages().add(image);
+                }
+                eventRepository.save(event);
+            }
+        });
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
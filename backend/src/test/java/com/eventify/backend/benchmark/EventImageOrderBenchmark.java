@@ -0,0 +1,96 @@
+package com.eventify.backend.benchmark;
+
+import com.eventify.backend.entity.Event;
+import com.eventify.backend.entity.EventImage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-request image sort that GET /api/events and friends used to run, against images that arrive
+ * already ordered by image_order (@OrderBy). Both variants refill each event's image list the way a fetch does.
+ * Run main(), e.g. from the IDE or with the test classpath:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.eventify.backend.benchmark.EventImageOrderBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventImageOrderBenchmark {
+
+    @Param({"100", "1000"})
+    private int events;
+
+    @Param({"8"})
+    private int imagesPerEvent;
+
+    private List<Event> catalogue;
+    // Images per event in arbitrary order (a plain bag) and in image_order (@OrderBy)
+    private List<List<EventImage>> unordered;
+    private List<List<EventImage>> ordered;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalogue = new ArrayList<>(events);
+        unordered = new ArrayList<>(events);
+        ordered = new ArrayList<>(events);
+        for (int e = 0; e < events; e++) {
+            Event event = new Event();
+            event.setId((long) e);
+            List<EventImage> images = new ArrayList<>(imagesPerEvent);
+            for (int i = 0; i < imagesPerEvent; i++) {
+                EventImage image = new EventImage();
+                image.setId((long) e * imagesPerEvent + i);
+                image.setOrder(i);
+                image.setEvent(event);
+                images.add(image);
+            }
+            ordered.add(new ArrayList<>(images));
+            Collections.shuffle(images, random);
+            unordered.add(images);
+            catalogue.add(event);
+        }
+    }
+
+    @Benchmark
+    public List<Event> comparatorSort() {
+        for (int e = 0; e < events; e++) {
+            List<EventImage> images = catalogue.get(e).getImages();
+            images.clear();
+            images.addAll(unordered.get(e));
+            // As the read paths did before images were fetched in order
+            images.sort(Comparator.comparing(img -> img.getOrder() != null ? img.getOrder() : Integer.MAX_VALUE));
+        }
+        return catalogue;
+    }
+
+    @Benchmark
+    public List<Event> preOrdered() {
+        for (int e = 0; e < events; e++) {
+            List<EventImage> images = catalogue.get(e).getImages();
+            images.clear();
+            images.addAll(ordered.get(e));
+        }
+        return catalogue;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventImageOrderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
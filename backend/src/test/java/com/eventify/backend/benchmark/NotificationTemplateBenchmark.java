@@ -0,0 +1,95 @@
+package com.eventify.backend.benchmark;
+
+import com.eventify.backend.service.NotificationTemplates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the event request email with the precompiled NotificationTemplates against the String.format text block
+ * EventRequestService used before. Run main() the same way as EventImageOrderBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationTemplateBenchmark {
+
+    private NotificationTemplates templates;
+
+    private Long eventId = 42L;
+    private String eventTitle = "Summer Garden Party";
+    private String name = "Jamie Doe";
+    private String email = "jamie@example.com";
+    private String phone = "+15550100";
+    private String message = "We would like something similar for about 80 guests in August.";
+
+    @Setup
+    public void setUp() {
+        templates = new NotificationTemplates();
+        ReflectionTestUtils.setField(templates, "environment", new StandardEnvironment());
+        templates.load();
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format("""
+            🎉 NEW EVENT REQUEST RECEIVED
+
+            ═══════════════════════════════════════
+            EVENT INFORMATION
+            ═══════════════════════════════════════
+            🆔 Event ID: %s
+            🎪 Event Title: %s
+
+            ═══════════════════════════════════════
+            CLIENT INFORMATION
+            ═══════════════════════════════════════
+            👤 Name: %s
+            📧 Email: %s
+            📱 Phone: %s
+
+            ═══════════════════════════════════════
+            CLIENT MESSAGE
+            ═══════════════════════════════════════
+            💬 %s
+
+            ═══════════════════════════════════════
+            NEXT STEPS
+            ═══════════════════════════════════════
+            ✅ Contact the client within 24 hours
+            ✅ Prepare event proposal based on referenced event
+            ✅ Schedule consultation if needed
+
+            Best regards,
+            Eventify System
+            """,
+            eventId, eventTitle, name, email, phone, message);
+    }
+
+    @Benchmark
+    public String template() {
+        return templates.render("event-request.email",
+            "eventId", eventId,
+            "eventTitle", eventTitle,
+            "name", name,
+            "email", email,
+            "phone", phone,
+            "message", message);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotificationTemplateBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
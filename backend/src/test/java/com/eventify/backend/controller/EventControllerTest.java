@@ -0,0 +1,227 @@
+package com.eventify.backend.controller;
+
+import com.eventify.backend.entity.Event;
+import com.eventify.backend.entity.EventOffering;
+import com.eventify.backend.entity.GlobalSetting;
+import com.eventify.backend.entity.NotificationOutbox;
+import com.eventify.backend.entity.NotificationType;
+import com.eventify.backend.repository.EventOfferingRepository;
+import com.eventify.backend.repository.EventRepository;
+import com.eventify.backend.repository.GlobalSettingRepository;
+import com.eventify.backend.repository.NotificationOutboxRepository;
+import com.eventify.backend.service.NotificationDispatcher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class EventControllerTest {
+
+    @Autowired
+    private EventController eventController;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private GlobalSettingRepository globalSettingRepository;
+
+    @Autowired
+    private EventOfferingRepository eventOfferingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private NotificationDispatcher notificationDispatcher;
+
+    @Test
+    void addEventWithMaximumLengthTitle() {
+        String title = "T".repeat(2000);
+
+        ResponseEntity<?> response = eventController.addEvent(title, "Music", null, "2026-06-01",
+                null, null, null, null, null, null, false, new MockHttpServletRequest());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(eventRepository.findAll().stream().anyMatch(e -> title.equals(e.getTitle())));
+        List<NotificationOutbox> emails = outboxRepository.findAll().stream()
+                .filter(n -> NotificationDispatcher.EMAIL.equals(n.getChannel()) && n.getSubject().contains("TTTT"))
+                .toList();
+        assertFalse(emails.isEmpty());
+        emails.forEach(n -> assertTrue(n.getSubject().length() <= NotificationOutbox.SUBJECT_LENGTH));
+    }
+
+    @Test
+    void eventIsNotSavedWhenItsNotificationCannotBeQueued() {
+        doThrow(new DataIntegrityViolationException("Outbox unavailable")).when(notificationDispatcher)
+                .sendEmail(eq(NotificationType.EVENT_CREATED), any(), any(), any(), any());
+
+        assertThrows(DataIntegrityViolationException.class, () -> eventController.addEvent("Never queued", "Music", null,
+                "2026-06-01", null, null, null, null, null, null, false, new MockHttpServletRequest()));
+
+        assertTrue(eventRepository.findAll().stream().noneMatch(e -> "Never queued".equals(e.getTitle())));
+    }
+
+    @Test
+    void unsavedSettingChangesAreNeverServed() {
+        globalSettingRepository.save(new GlobalSetting("cache_probe", "1"));
+        assertEquals("1", globalSettingRepository.findValueByKey("cache_probe").orElseThrow());
+
+        // A write that fails before saving must leave nothing behind in the cache
+        globalSettingRepository.findByKey("cache_probe").orElseThrow().setValue("2");
+
+        assertEquals("1", globalSettingRepository.findValueByKey("cache_probe").orElseThrow());
+        assertEquals("1", globalSettingRepository.findByKey("cache_probe").orElseThrow().getValue());
+    }
+
+    @Test
+    void globalDiscountRepricesGlobalOfferings() {
+        EventOffering global = eventOfferingRepository.save(offering("global", 999.0, null));
+        EventOffering special = eventOfferingRepository.save(offering("SPECIAL", 1000.0, 700.0));
+        try {
+            assertEquals(HttpStatus.OK, eventController.setGlobalDiscount(Map.of("discount", 15)).getStatusCode());
+
+            assertEquals("15", globalSettingRepository.findValueByKey("global_discount").orElseThrow());
+            // 999 less 15% is 849.15, rounded to whole rupees
+            assertEquals(849.0, eventOfferingRepository.findById(global.getId()).orElseThrow().getEffectivePrice());
+            assertEquals(700.0, eventOfferingRepository.findById(special.getId()).orElseThrow().getEffectivePrice());
+        } finally {
+            eventController.setGlobalDiscount(Map.of("discount", 0));
+        }
+        assertEquals(999.0, eventOfferingRepository.findById(global.getId()).orElseThrow().getEffectivePrice());
+    }
+
+    private static EventOffering offering(String discountType, Double price, Double specialPrice) {
+        EventOffering offering = new EventOffering();
+        offering.setTitle("Priced " + discountType);
+        offering.setDecorationImageUrl("https://storage.example.com/offerings/priced.webp");
+        offering.setApproximatePrice(price);
+        offering.setDiscountType(discountType);
+        offering.setSpecificDiscountedPrice(specialPrice);
+        offering.setEffectivePrice(specialPrice != null ? specialPrice : price);
+        return offering;
+    }
+
+    @Test
+    void catalogueResponsesCanBeRevalidated() throws Exception {
+        for (String path : List.of("/api/categories", "/api/events", "/api/events/recent", "/api/offerings")) {
+            MvcResult first = mockMvc.perform(get(path))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                    .andExpect(header().doesNotExist(HttpHeaders.PRAGMA))
+                    .andExpect(header().doesNotExist(HttpHeaders.EXPIRES))
+                    .andReturn();
+            String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag, path);
+
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        }
+    }
+
+    @Test
+    void eventSnapshotHonoursConditionalAndEncodingHeaders() throws Exception {
+        String etag = mockMvc.perform(get("/api/events"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipEtag = mockMvc.perform(get("/api/events").header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, gzipEtag);
+
+        mockMvc.perform(get("/api/events").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/api/events").header(HttpHeaders.ACCEPT_ENCODING, "*"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        for (String ifNoneMatch : List.of("*", "W/" + etag, "\"other\", " + etag)) {
+            mockMvc.perform(get("/api/events").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag));
+        }
+        // A tag for the gzip body does not validate the plain one, nor does a tag that merely contains it
+        for (String ifNoneMatch : List.of(gzipEtag, "\"x" + etag.substring(1))) {
+            mockMvc.perform(get("/api/events").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void eventSnapshotPicksUpChangesMadeElsewhere() throws Exception {
+        Event event = new Event();
+        event.setTitle("Before the snapshot");
+        event.setDate(LocalDate.of(2026, 7, 1));
+        event = eventRepository.save(event);
+        mockMvc.perform(get("/api/events"))
+                .andExpect(content().string(containsString("Before the snapshot")));
+
+        // Straight to the database, as another instance would, so the snapshot is not refreshed
+        event.setTitle("Changed elsewhere");
+        eventRepository.save(event);
+
+        mockMvc.perform(get("/api/events"))
+                .andExpect(content().string(containsString("Changed elsewhere")));
+    }
+
+    @Test
+    void allEventsSortedByTitle() throws Exception {
+        for (String title : List.of("Sorted B", "Sorted " + "Z".repeat(1993), "Sorted A", "Sorted C")) {
+            Event event = new Event();
+            event.setTitle(title);
+            event.setDate(LocalDate.of(2026, 8, 1));
+            eventRepository.save(event);
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/events/sorted?sort=title&order=desc"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<String> sorted = new ArrayList<>();
+        JsonNode events = objectMapper.readTree(result.getResponse().getContentAsString());
+        for (JsonNode event : events) {
+            String title = event.get("title").asText();
+            if (title.startsWith("Sorted ")) {
+                sorted.add(title.substring(0, 8));
+            }
+        }
+        assertEquals(List.of("Sorted Z", "Sorted C", "Sorted B", "Sorted A"), sorted);
+        assertEquals(String.valueOf(events.size()), result.getResponse().getHeader("X-Total-Count"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.eventify.backend.controller;
+
+import com.eventify.backend.entity.EventOffering;
+import com.eventify.backend.entity.StoredImage;
+import com.eventify.backend.repository.StoredImageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventOfferingControllerTest {
+
+    @Autowired
+    private EventOfferingController eventOfferingController;
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    @Test
+    void rejectedOfferingKeepsImageReferenceCount() {
+        String url = "https://storage.example.com/offerings/rejected.webp";
+        storedImageRepository.save(new StoredImage("rejected-offering-hash", "offerings", "rejected.webp", url, null));
+
+        ResponseEntity<EventOffering> response = eventOfferingController.addOfferingMultipart(
+                "Balloons", 2500.0, null, null, null, url, "not json", "{}");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(1, storedImageRepository.findFirstByUrl(url).orElseThrow().getRefCount());
+    }
+
+    @Test
+    void savedOfferingTakesImageReference() {
+        String url = "https://storage.example.com/offerings/saved.webp";
+        storedImageRepository.save(new StoredImage("saved-offering-hash", "offerings", "saved.webp", url, null));
+
+        ResponseEntity<EventOffering> response = eventOfferingController.addOfferingMultipart(
+                "Balloons", 2500.0, null, null, null, url, "[{\"name\":\"Birthday\",\"emoji\":\"🎂\"}]", "{}");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, storedImageRepository.findFirstByUrl(url).orElseThrow().getRefCount());
+    }
+}
@@ -0,0 +1,60 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.NotificationOutbox;
+import com.eventify.backend.entity.NotificationType;
+import com.eventify.backend.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationDispatcherTest {
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Test
+    void queuedNotificationIsRefreshedInPlace() {
+        notificationDispatcher.sendEmail(NotificationType.EVENT_UPDATED, "test:refresh", "admin@example.com", "First", "first body");
+        notificationDispatcher.sendEmail(NotificationType.EVENT_UPDATED, "test:refresh", "admin@example.com", "Second", "second body");
+
+        List<NotificationOutbox> rows = queued("test:refresh");
+        assertEquals(1, rows.size());
+        assertEquals("Second", rows.get(0).getSubject());
+        assertEquals("second body", rows.get(0).getBody());
+    }
+
+    @Test
+    void claimedNotificationIsNotRefreshed() {
+        notificationDispatcher.sendEmail(NotificationType.EVENT_UPDATED, "test:claimed", "admin@example.com", "First", "first body");
+        // What the relay's claim does to a row before sending it
+        NotificationOutbox claimed = queued("test:claimed").get(0);
+        claimed.setAttempts(1);
+        outboxRepository.save(claimed);
+
+        notificationDispatcher.sendEmail(NotificationType.EVENT_UPDATED, "test:claimed", "admin@example.com", "Second", "second body");
+
+        List<NotificationOutbox> rows = queued("test:claimed");
+        assertEquals(2, rows.size());
+        assertEquals("First", rows.get(0).getSubject());
+        assertEquals("Second", rows.get(1).getSubject());
+        assertEquals(0, rows.get(1).getAttempts());
+    }
+
+    private List<NotificationOutbox> queued(String dedupKey) {
+        return outboxRepository.findAll().stream()
+                .filter(n -> dedupKey.equals(n.getDedupKey()))
+                .sorted(Comparator.comparing(NotificationOutbox::getId))
+                .toList();
+    }
+}
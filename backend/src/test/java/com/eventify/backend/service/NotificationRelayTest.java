@@ -0,0 +1,200 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.entity.NotificationOutbox;
+import com.eventify.backend.entity.NotificationType;
+import com.eventify.backend.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the outbox relay against in-process email and WhatsApp senders.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:relay;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=KEY,VALUE",
+        "notifications.outbox.max-attempts=3",
+        "notifications.outbox.backoff=200ms",
+        "notifications.outbox.max-backoff=1s",
+        "notifications.outbox.poll-interval=100ms",
+        "notifications.digest.window=500ms"
+})
+@ActiveProfiles("test")
+class NotificationRelayTest {
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private FakeSender fakeEmail;
+
+    @Autowired
+    private FakeSender fakeWhatsApp;
+
+    @Test
+    void urgentNotificationIsSent() {
+        notificationDispatcher.sendEmail(NotificationType.EVENT_REQUEST, null, "sent@example.com", "New request", "Details");
+
+        NotificationOutbox row = await("sent@example.com", n -> NotificationOutbox.SENT.equals(n.getStatus()));
+        assertEquals(1, row.getAttempts());
+        assertNotNull(row.getSentAt());
+        List<Delivery> deliveries = fakeEmail.deliveriesTo("sent@example.com");
+        assertEquals(1, deliveries.size());
+        assertEquals("New request", deliveries.get(0).subject());
+        assertEquals("Details", deliveries.get(0).body());
+    }
+
+    @Test
+    void failedNotificationIsRetriedWithBackoff() {
+        fakeEmail.failNext("retry@example.com", 2);
+        notificationDispatcher.sendEmail(NotificationType.EVENT_REQUEST, null, "retry@example.com", "New request", "Details");
+
+        NotificationOutbox row = await("retry@example.com", n -> NotificationOutbox.SENT.equals(n.getStatus()));
+        assertEquals(3, row.getAttempts());
+        assertNull(row.getLastError());
+        List<Delivery> attempts = fakeEmail.deliveriesTo("retry@example.com");
+        assertEquals(3, attempts.size());
+        // 200ms after the first failure, 400ms after the second
+        assertTrue(Duration.between(attempts.get(0).at(), attempts.get(1).at()).toMillis() >= 200);
+        assertTrue(Duration.between(attempts.get(1).at(), attempts.get(2).at()).toMillis() >= 400);
+    }
+
+    @Test
+    void notificationIsDeadAfterMaxAttempts() {
+        fakeEmail.failNext("dead@example.com", Integer.MAX_VALUE);
+        notificationDispatcher.sendEmail(NotificationType.EVENT_REQUEST, null, "dead@example.com", "New request", "Details");
+
+        NotificationOutbox row = await("dead@example.com", n -> NotificationOutbox.DEAD.equals(n.getStatus()));
+        assertEquals(3, row.getAttempts());
+        assertEquals("Mailbox unavailable", row.getLastError());
+        assertNull(row.getSentAt());
+        assertEquals(3, fakeEmail.deliveriesTo("dead@example.com").size());
+    }
+
+    @Test
+    void notificationsInOneWindowAreSentAsOneDigest() throws InterruptedException {
+        notificationDispatcher.sendEmail(NotificationType.EVENT_UPDATED, "test:digest:1", "digest@example.com", "Event updated: Concert", "Concert body");
+        notificationDispatcher.sendEmail(NotificationType.EVENT_FEEDBACK, null, "digest@example.com", "New feedback: Concert", "Feedback body");
+
+        await("digest@example.com", n -> NotificationOutbox.SENT.equals(n.getStatus()));
+        // Both rows share the window's send time, so they go out together
+        assertEquals(2, outboxRepository.findAll().stream()
+                .filter(n -> "digest@example.com".equals(n.getRecipient()) && NotificationOutbox.SENT.equals(n.getStatus()))
+                .count());
+        List<Delivery> deliveries = fakeEmail.deliveriesTo("digest@example.com");
+        assertEquals(1, deliveries.size());
+        assertTrue(deliveries.get(0).body().contains("Concert body"));
+        assertTrue(deliveries.get(0).body().contains("Feedback body"));
+    }
+
+    @Test
+    void longWhatsAppDigestIsSplitAcrossMessages() {
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String body = "Update " + i + " " + "x".repeat(600);
+            bodies.add(body);
+            notificationDispatcher.sendWhatsApp(NotificationType.EVENT_UPDATED, null, "+15550142", body);
+        }
+
+        await("+15550142", n -> NotificationOutbox.SENT.equals(n.getStatus()));
+        List<Delivery> deliveries = fakeWhatsApp.deliveriesTo("+15550142");
+        assertTrue(deliveries.size() > 1);
+        deliveries.forEach(d -> assertTrue(d.body().length() <= 1600, d.body().length() + " characters"));
+        // Every row marked SENT went out in full in one of the messages
+        for (String body : bodies) {
+            assertEquals(1, deliveries.stream().filter(d -> d.body().contains(body)).count(), body.substring(0, 8));
+        }
+    }
+
+    // Waits for every row sent to the recipient to match
+    private NotificationOutbox await(String recipient, Predicate<NotificationOutbox> condition) {
+        Instant deadline = Instant.now().plusSeconds(10);
+        while (Instant.now().isBefore(deadline)) {
+            List<NotificationOutbox> rows = outboxRepository.findAll().stream()
+                    .filter(n -> recipient.equals(n.getRecipient()))
+                    .toList();
+            if (!rows.isEmpty() && rows.stream().allMatch(condition)) {
+                return rows.get(0);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return fail("Notification to " + recipient + " did not reach the expected state");
+    }
+
+    record Delivery(String recipient, String subject, String body, Instant at) {
+    }
+
+    /**
+     * Records every send; recipients can be set up to fail a number of times first.
+     */
+    static class FakeSender implements NotificationSender {
+        private final String channel;
+        private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+        private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+        FakeSender(String channel) {
+            this.channel = channel;
+        }
+
+        void failNext(String recipient, int times) {
+            failures.put(recipient, times);
+        }
+
+        List<Delivery> deliveriesTo(String recipient) {
+            return deliveries.stream().filter(d -> d.recipient().equals(recipient)).toList();
+        }
+
+        @Override
+        public String channel() {
+            return channel;
+        }
+
+        @Override
+        public void send(String recipient, String subject, String body) throws Exception {
+            deliveries.add(new Delivery(recipient, subject, body, Instant.now()));
+            if (failures.getOrDefault(recipient, 0) > 0) {
+                failures.computeIfPresent(recipient, (r, left) -> left - 1);
+                throw new Exception("Mailbox unavailable");
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class FakeSenders {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        FakeSender fakeEmail() {
+            return new FakeSender(NotificationDispatcher.EMAIL);
+        }
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        FakeSender fakeWhatsApp() {
+            return new FakeSender(NotificationDispatcher.WHATSAPP);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.eventify.backend.service;
+
+import com.eventify.backend.support.TwilioStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends a burst through the WhatsApp channel to a local Twilio stub that answers each message after 300ms.
+ */
+@SpringJUnitConfig(WhatsAppService.class)
+class WhatsAppServiceTest {
+
+    private static final int MAX_CONCURRENT = 2;
+    private static final int MESSAGES_PER_SECOND = 10;
+
+    private static TwilioStubServer stub;
+
+    @Autowired
+    private WhatsAppService whatsAppService;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = TwilioStubServer.start(0, 300);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @DynamicPropertySource
+    static void twilioProperties(DynamicPropertyRegistry registry) {
+        registry.add("twilio.account.sid", () -> "ACtest");
+        registry.add("twilio.auth.token", () -> "token");
+        registry.add("twilio.whatsapp.from", () -> "+14155238886");
+        registry.add("twilio.whatsapp.max-concurrent", () -> MAX_CONCURRENT);
+        registry.add("twilio.whatsapp.messages-per-second", () -> MESSAGES_PER_SECOND);
+        registry.add("twilio.api.base-url", () -> stub.baseUrl());
+    }
+
+    @Test
+    void burstIsLimitedSpacedAndSentOnPooledConnections() throws Exception {
+        // The first message pays for loading the Twilio SDK, which would squeeze the next arrival closer
+        whatsAppService.send("+15550199", null, "Warm-up");
+        stub.reset();
+
+        int messages = 8;
+        ExecutorService callers = Executors.newFixedThreadPool(messages);
+        try {
+            List<Future<?>> sends = new ArrayList<>();
+            for (int i = 0; i < messages; i++) {
+                String to = "+1555010" + i;
+                sends.add(callers.submit(() -> {
+                    whatsAppService.send(to, null, "Event updated");
+                    return null;
+                }));
+            }
+            for (Future<?> send : sends) {
+                send.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(messages, stub.requestCount());
+        // Without the cap the 100ms spacing and 300ms replies would put three messages in flight
+        assertEquals(MAX_CONCURRENT, stub.maxInProgress());
+
+        // The limiter hands out slots one interval apart, so message i reaches the stub no sooner than i intervals
+        // after the first; a late thread can shorten a single gap but never the total
+        List<Long> arrivals = stub.arrivalNanos();
+        long intervalMillis = 1000 / MESSAGES_PER_SECOND;
+        for (int i = 1; i < arrivals.size(); i++) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(arrivals.get(i) - arrivals.get(0));
+            // Allowance for the first message's trip from the limiter to the stub
+            assertTrue(elapsedMillis >= i * intervalMillis - 50, "Message " + i + " arrived " + elapsedMillis + "ms after the first");
+        }
+
+        // Every message went over one of the pool's keep-alive connections
+        assertTrue(stub.connectionCount() <= MAX_CONCURRENT, stub.connectionCount() + " connections were opened");
+    }
+}
@@ -0,0 +1,120 @@
+package com.eventify.backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Twilio Messages API, for trying out the WhatsApp channel without a Twilio account.
+ * Run main() (optional args: port, response delay in ms), then start the backend with
+ * TWILIO_API_BASE_URL=http://localhost:8089 and any non-empty TWILIO_ACCOUNT_SID / TWILIO_AUTH_TOKEN.
+ * Each request is logged with its arrival time so the rate and concurrency limits can be observed.
+ * Tests start it with start(0, delay) and read back what it saw: arrival times, the highest number of requests
+ * in progress at once and the client connections (remote ports) they came in on.
+ */
+public class TwilioStubServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long delayMs;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicInteger inProgress = new AtomicInteger();
+    private final AtomicInteger maxInProgress = new AtomicInteger();
+    private final List<Long> arrivalNanos = new CopyOnWriteArrayList<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private TwilioStubServer(int port, long delayMs) throws IOException {
+        this.delayMs = delayMs;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/2010-04-01/Accounts/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts a stub on the given port (0 picks a free one) that answers each message after delayMs.
+     */
+    public static TwilioStubServer start(int port, long delayMs) throws IOException {
+        TwilioStubServer stub = new TwilioStubServer(port, delayMs);
+        stub.server.start();
+        return stub;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long delayMs = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        TwilioStubServer stub = start(port, delayMs);
+        System.out.println("Twilio stub listening on " + stub.baseUrl());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        arrivalNanos.add(System.nanoTime());
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        int running = inProgress.incrementAndGet();
+        maxInProgress.accumulateAndGet(running, Math::max);
+        int n = count.incrementAndGet();
+        try {
+            String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            System.out.println(Instant.now() + " #" + n + " " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI() + " " + form.substring(0, Math.min(form.length(), 80)));
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Before replying, since the client may send its next request as soon as the reply arrives
+            inProgress.decrementAndGet();
+        }
+        byte[] body = ("{\"sid\":\"SM" + n + "\",\"status\":\"queued\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(201, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int requestCount() {
+        return count.get();
+    }
+
+    public int maxInProgress() {
+        return maxInProgress.get();
+    }
+
+    public List<Long> arrivalNanos() {
+        return List.copyOf(arrivalNanos);
+    }
+
+    public int connectionCount() {
+        return clientPorts.size();
+    }
+
+    /**
+     * Forgets what has been seen so far, e.g. after a warm-up request.
+     */
+    public void reset() {
+        count.set(0);
+        maxInProgress.set(0);
+        arrivalNanos.clear();
+        clientPorts.clear();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -9,7 +9,7 @@ const EventCard = ({event}) => {
 
     const imageSource = useMemo(() => {
         const firstImage = event.images?.[0];
-        return apiService.getImageSrc(firstImage);
+        return apiService.getImageVariantSrc(firstImage, undefined, 640);
     }, [event.images]);
 
     const formattedDate = useMemo(() => {
@@ -33,7 +33,7 @@ const OfferingCard = ({offering, onDelete, onEdit, globalDiscount = 0, showActio
         <div
             className="bg-slate-800 border border-slate-700 rounded-xl shadow-lg p-5 flex flex-col items-center gap-3 w-72 hover:shadow-sky-500/20 transition-shadow duration-300 max-h-[480px]">
             <img
-                src={apiService.getImageSrc(offering.decorationImageUrl)}
+                src={apiService.getImageVariantSrc(offering.decorationImageUrl, offering.decorationImageVariants, 320)}
                 alt={offering.title}
                 className="w-full h-48 object-cover rounded-lg border-2 border-slate-700 bg-slate-700 mb-2 shadow-md flex-shrink-0"
                 onError={e => (e.target.src = '/vite.svg')}
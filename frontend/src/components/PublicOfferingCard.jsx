@@ -38,7 +38,7 @@ const PublicOfferingCard = ({offering, modern = false, globalDiscount}) => {
             <div className="relative">
                 <div className="h-40 w-full overflow-hidden rounded-t-xl">
                     <img
-                        src={apiService.getImageSrc(offering.decorationImageUrl)}
+                        src={apiService.getImageVariantSrc(offering.decorationImageUrl, offering.decorationImageVariants, 320)}
                         alt={offering.title}
                         className="w-full h-full object-cover transition-transform duration-300 group-hover:scale-105"
                         onError={(e) => {
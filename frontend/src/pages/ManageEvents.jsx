@@ -153,7 +153,7 @@ const ManageEvents = () => {
                                     <td className="py-3 px-4 md:px-6">
                                         {event.images && event.images.length > 0 ? (
                                             <img
-                                                src={apiService.getImageSrc(event.images[0])}
+                                                src={apiService.getImageVariantSrc(event.images[0], undefined, 64)}
                                                 alt={event.title || "Event image"}
                                                 className="w-16 h-16 object-cover rounded-md border border-slate-600 shadow-sm"
                                             />
@@ -201,4 +201,17 @@ apiService.getImageSrc = (img) => {
     return "";
 };
 
+// Picks the smallest stored variant at least minWidth wide (WebP when the browser gets one),
+// falling back to the full image when there are no variants.
+apiService.getImageVariantSrc = (img, variants, minWidth) => {
+    const list = variants ?? img?.variants;
+    if (Array.isArray(list) && list.length > 0) {
+        const sorted = [...list].sort((a, b) => a.width - b.width);
+        const fit = sorted.find(v => v.width >= minWidth) || sorted[sorted.length - 1];
+        const src = fit.webp || fit.jpeg;
+        if (src) return src;
+    }
+    return apiService.getImageSrc(img);
+};
+
 export default apiService;